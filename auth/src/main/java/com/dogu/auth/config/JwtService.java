@@ -1,8 +1,10 @@
 package com.dogu.auth.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +23,16 @@ public class JwtService {
     @Value("${jwt.expiration:86400000}")
     private long expiration; // 24 saat default
 
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        // Anahtar ve parser bir kez olusturulur, her istekte tekrar kullanilir
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String generateToken(int userId, String email, String name, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -32,16 +44,12 @@ public class JwtService {
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     public String extractEmail(String token) {
@@ -56,9 +64,4 @@ public class JwtService {
             return false;
         }
     }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
@@ -12,6 +12,8 @@ public class RabbitMQConfig {
 
     public static final String USER_EXCHANGE = "user.exchange";
     public static final String USER_REGISTERED_ROUTING_KEY = "user.registered";
+    public static final String USER_UPDATED_ROUTING_KEY = "user.updated";
+    public static final String USER_DELETED_ROUTING_KEY = "user.deleted";
 
     @Bean
     public TopicExchange userExchange() {
@@ -18,4 +18,20 @@ public class UserEventPublisher {
                 event
         );
     }
+
+    public void publishUserUpdated(UserUpdatedEvent event) {
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.USER_EXCHANGE,
+                RabbitMQConfig.USER_UPDATED_ROUTING_KEY,
+                event
+        );
+    }
+
+    public void publishUserDeleted(UserDeletedEvent event) {
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.USER_EXCHANGE,
+                RabbitMQConfig.USER_DELETED_ROUTING_KEY,
+                event
+        );
+    }
 }
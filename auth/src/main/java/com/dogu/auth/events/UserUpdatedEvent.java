@@ -0,0 +1,42 @@
+package com.dogu.auth.events;
+
+import java.time.LocalDateTime;
+
+public class UserUpdatedEvent {
+    private int userId;
+    private String email;
+    private LocalDateTime timestamp;
+
+    public UserUpdatedEvent() {
+    }
+
+    public UserUpdatedEvent(int userId, String email) {
+        this.userId = userId;
+        this.email = email;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -1,7 +1,9 @@
 package com.dogu.auth.user.impl;
 
+import com.dogu.auth.events.UserDeletedEvent;
 import com.dogu.auth.events.UserEventPublisher;
 import com.dogu.auth.events.UserRegisteredEvent;
+import com.dogu.auth.events.UserUpdatedEvent;
 import com.dogu.auth.exception.AccessDeniedException;
 import com.dogu.auth.exception.EmailAlreadyExistsException;
 import com.dogu.auth.exception.InvalidCredentialsException;
@@ -75,7 +77,12 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(info.getId())
                 .orElseThrow(() -> new UserNotFoundException(info.getId()));
         user = toEntity(info, user);
-        return toDto(userRepository.save(user));
+        userRepository.save(user);
+
+        // Publish user updated event
+        eventPublisher.publishUserUpdated(new UserUpdatedEvent(user.getId(), user.getEmail()));
+
+        return toDto(user);
     }
 
     @Override
@@ -87,6 +94,9 @@ public class UserServiceImpl implements UserService {
         User entity = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
         userRepository.delete(entity);
+
+        // Publish user deleted event
+        eventPublisher.publishUserDeleted(new UserDeletedEvent(entity.getId(), entity.getEmail()));
     }
 
     public UserDto login(String email, String password) {
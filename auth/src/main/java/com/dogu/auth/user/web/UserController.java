@@ -27,6 +27,12 @@ public class UserController {
         return toResponse(userDto);
     }
 
+    @GetMapping("/emails")
+    public List<UserEmailResponse> getEmails() {
+        List<UserDto> users = service.getAll();
+        return users.stream().map(this::toEmailResponse).toList();
+    }
+
     @GetMapping("/{id}")
     public UserResponse get(@PathVariable int id) {
         UserDto userDto = service.get(id);
@@ -93,6 +99,13 @@ public class UserController {
         return response;
     }
 
+    public UserEmailResponse toEmailResponse(UserDto dto) {
+        UserEmailResponse response = new UserEmailResponse();
+        response.id = dto.getId();
+        response.email = dto.getEmail();
+        return response;
+    }
+
     public UserDto toDto(UserRequest request) {
         UserDto dto = new UserDto();
         dto.setName(request.name);
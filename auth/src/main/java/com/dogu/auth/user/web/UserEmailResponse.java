@@ -0,0 +1,6 @@
+package com.dogu.auth.user.web;
+
+public class UserEmailResponse {
+    public int id;
+    public String email;
+}
@@ -0,0 +1,119 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Checkout throughput against a running basket instance. Run it once against the default thread pool
+// and once against an instance started with the virtual-threads profile, using the same arguments:
+//
+//   java basket/benchmark/CheckoutThroughputBenchmark.java \
+//        --url=http://localhost:9091 --users=1-200 --product=1 --seconds=30
+//
+// Each worker owns one user id and loops "add one item, check out". The users and a product with
+// enough stock must already exist. It only uses the JDK, so it runs without a build; it lives outside
+// src/ so neither the main nor the test build compiles or runs it.
+public class CheckoutThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:9091");
+        String[] users = options.getOrDefault("users", "1-200").split("-");
+        int firstUser = Integer.parseInt(users[0]);
+        int lastUser = Integer.parseInt(users[users.length - 1]);
+        int productId = Integer.parseInt(options.getOrDefault("product", "1"));
+        long warmupMs = Long.parseLong(options.getOrDefault("warmup", "5")) * 1000;
+        long measureMs = Long.parseLong(options.getOrDefault("seconds", "30")) * 1000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        long start = System.currentTimeMillis();
+        long measureFrom = start + warmupMs;
+        long end = measureFrom + measureMs;
+
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        List<List<Long>> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> workers = new ArrayList<>();
+
+        for (int userId = firstUser; userId <= lastUser; userId++) {
+            int user = userId;
+            Thread worker = new Thread(() -> {
+                List<Long> own = new ArrayList<>();
+                while (System.currentTimeMillis() < end) {
+                    boolean ok = send(client, url + "/basket-items",
+                            "{\"userId\":" + user + ",\"productId\":" + productId + ",\"quantity\":1}");
+                    long t0 = System.nanoTime();
+                    ok &= send(client, url + "/basket-items/checkout/" + user, "");
+                    long elapsed = System.nanoTime() - t0;
+
+                    if (System.currentTimeMillis() >= measureFrom) {
+                        if (ok) {
+                            completed.increment();
+                            own.add(elapsed);
+                        } else {
+                            failed.increment();
+                        }
+                    }
+                }
+                latencies.add(own);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+
+        System.out.printf("workers=%d measured=%ds%n", workers.size(), measureMs / 1000);
+        System.out.printf("checkouts=%d failed=%d throughput=%.1f/s%n",
+                completed.sum(), failed.sum(), completed.sum() * 1000.0 / measureMs);
+        System.out.printf("checkout latency ms p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    private static boolean send(HttpClient client, String url, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -1,10 +1,15 @@
 package com.dogu.basket;
 
+import com.dogu.basket.loadbalancer.PowerOfTwoChoicesLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableDiscoveryClient
+@EnableScheduling
+@LoadBalancerClients(defaultConfiguration = PowerOfTwoChoicesLoadBalancerConfiguration.class)
 @SpringBootApplication
 public class BasketApplication {
 
@@ -0,0 +1,14 @@
+package com.dogu.basket.basketitem.api;
+
+public class CheckoutInProgressException extends RuntimeException {
+    private final String orderId;
+
+    public CheckoutInProgressException(String orderId) {
+        super("Checkout " + orderId + " for this Idempotency-Key is still in progress, retry with the same key");
+        this.orderId = orderId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+}
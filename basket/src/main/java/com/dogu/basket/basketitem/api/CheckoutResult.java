@@ -2,7 +2,7 @@ package com.dogu.basket.basketitem.api;
 
 import java.util.List;
 
-public class CheckoutResult {
+public class CheckoutResult implements java.io.Serializable {
     private String orderId;
     private int userId;
     private List<BasketItemDto> items;
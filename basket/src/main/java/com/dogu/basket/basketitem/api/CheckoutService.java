@@ -0,0 +1,7 @@
+package com.dogu.basket.basketitem.api;
+
+public interface CheckoutService {
+    public CheckoutResult checkout(int userId, String idempotencyKey);
+    public CheckoutJobDto submit(int userId, String idempotencyKey);
+    public CheckoutJobDto get(String orderId);
+}
@@ -8,4 +8,5 @@ import java.util.List;
 @Repository
 public interface BasketItemRepository extends JpaRepository<BasketItem, Integer> {
     List<BasketItem> findByUserId(int userId);
+    boolean existsByUserId(int userId);
 }
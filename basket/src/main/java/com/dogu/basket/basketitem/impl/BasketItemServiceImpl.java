@@ -3,35 +3,58 @@ package com.dogu.basket.basketitem.impl;
 import com.dogu.basket.basketitem.api.BasketItemDto;
 import com.dogu.basket.basketitem.api.BasketItemService;
 import com.dogu.basket.basketitem.api.CheckoutResult;
+import com.dogu.basket.client.StockClient;
+import com.dogu.basket.client.UserRegistry;
 import com.dogu.basket.events.OrderCreatedEvent;
 import com.dogu.basket.events.OrderEventPublisher;
 import com.dogu.basket.events.OrderItemEvent;
+import com.dogu.basket.order.api.OrderItemDto;
 import com.dogu.basket.order.api.OrderService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.dogu.basket.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Service
 public class BasketItemServiceImpl implements BasketItemService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BasketItemServiceImpl.class);
+
     @Autowired
     BasketItemRepository basketItemRepository;
 
     @Autowired
-    RestTemplate restTemplate;
+    StockClient stockClient;
+
+    @Autowired
+    UserRegistry userRegistry;
 
     @Autowired
     OrderEventPublisher eventPublisher;
@@ -39,10 +62,19 @@ public class BasketItemServiceImpl implements BasketItemService {
     @Autowired
     OrderService orderService;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    UserLocks userLocks;
+
+    @Autowired
+    @Qualifier("checkoutExecutor")
+    Executor checkoutExecutor;
+
+    @Value("${basket.checkout.deadline-ms:3000}")
+    private long checkoutDeadlineMs;
+
+    @Value("${basket.checkout.product-batch-size:50}")
+    private int productBatchSize;
 
-    private static final String STOCK_SERVICE_URL = "http://127.0.0.1:9093";
-    private static final String AUTH_SERVICE_URL = "http://127.0.0.1:9092";
 
     @Override
     @Caching(evict = {
@@ -50,12 +82,11 @@ public class BasketItemServiceImpl implements BasketItemService {
             @CacheEvict(value = "basket-items", allEntries = true)
     })
     public BasketItemDto save(BasketItemDto param) {
-        validateUserExists(param.getUserId());
-        validateProductExists(param.getProductId());
+        resolveEmail(param.getUserId());
         checkProductStock(param.getProductId(), param.getQuantity());
 
         BasketItem basketItem = toEntity(param, null);
-        basketItemRepository.save(basketItem);
+        userLocks.withLock(param.getUserId(), () -> basketItemRepository.save(basketItem));
         return toDto(basketItem);
     }
 
@@ -76,7 +107,7 @@ public class BasketItemServiceImpl implements BasketItemService {
     @Override
     @Cacheable(value = "basket-by-user", key = "#userId")
     public List<BasketItemDto> getByUserId(int userId) {
-        validateUserExists(userId);
+        resolveEmail(userId);
         List<BasketItem> basketItems = basketItemRepository.findByUserId(userId);
         return basketItems.stream().map(this::toDto).toList();
     }
@@ -87,13 +118,16 @@ public class BasketItemServiceImpl implements BasketItemService {
             evict = {@CacheEvict(value = "basket-by-user", key = "#info.userId")}
     )
     public BasketItemDto update(BasketItemDto info) {
-        validateProductExists(info.getProductId());
         checkProductStock(info.getProductId(), info.getQuantity());
 
-        BasketItem basketItem = basketItemRepository.findById(info.getId())
+        BasketItem existing = basketItemRepository.findById(info.getId())
                 .orElseThrow(() -> new RuntimeException("Basket item not found"));
-        basketItem = toEntity(info, basketItem);
-        return toDto(basketItemRepository.save(basketItem));
+        return userLocks.withLock(existing.getUserId(), () -> {
+            // Re-read under the lock, a checkout may have just removed the item
+            BasketItem basketItem = basketItemRepository.findById(info.getId())
+                    .orElseThrow(() -> new RuntimeException("Basket item not found"));
+            return toDto(basketItemRepository.save(toEntity(info, basketItem)));
+        });
     }
 
     @Override
@@ -104,31 +138,59 @@ public class BasketItemServiceImpl implements BasketItemService {
     public void delete(int id) {
         BasketItem entity = basketItemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Basket item not found"));
-        basketItemRepository.delete(entity);
+        userLocks.withLock(entity.getUserId(), () -> {
+            basketItemRepository.deleteById(id);
+            return null;
+        });
     }
 
+    // userEmail may be null, it is then looked up alongside the products
     @Override
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "basket-items", allEntries = true),
             @CacheEvict(value = "basket-by-user", key = "#userId")
     })
-    public CheckoutResult checkout(int userId) {
-        validateUserExists(userId);
-
-        // Fetch user email for event
-        String userEmail = getUserEmail(userId);
-
+    public CheckoutResult checkout(int userId, String orderId, String userEmail) {
         List<BasketItem> items = basketItemRepository.findByUserId(userId);
         if (items.isEmpty()) {
             throw new RuntimeException("Basket is empty");
         }
 
+        // User validation/email and product batches are independent: run them side by side
+        ParallelCalls calls = new ParallelCalls();
+        Future<String> emailCall;
+        List<Future<Map<Integer, Map<String, Object>>>> productCalls = new ArrayList<>();
+        try {
+            emailCall = userEmail != null
+                    ? CompletableFuture.completedFuture(userEmail)
+                    : calls.submit(() -> userRegistry.getEmail(userId));
+
+            List<Integer> productIds = items.stream().map(BasketItem::getProductId).distinct().toList();
+            for (int from = 0; from < productIds.size(); from += productBatchSize) {
+                List<Integer> batch = productIds.subList(from, Math.min(from + productBatchSize, productIds.size()));
+                productCalls.add(calls.submit(() -> stockClient.getProducts(batch)));
+            }
+        } catch (RejectedExecutionException e) {
+            calls.cancelAll();
+            throw new RuntimeException("Too many checkouts in progress, please retry");
+        }
+        calls.awaitAll();
+
+        String email = calls.result(emailCall);
+        Map<Integer, Map<String, Object>> products = new HashMap<>();
+        for (Future<Map<Integer, Map<String, Object>>> productCall : productCalls) {
+            products.putAll(calls.result(productCall));
+        }
+
         List<OrderItemEvent> orderItems = new ArrayList<>();
         double totalAmount = 0.0;
 
         for (BasketItem item : items) {
-            Map<String, Object> product = getProductInfo(item.getProductId());
+            Map<String, Object> product = products.get(item.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found with id: " + item.getProductId());
+            }
             double price = ((Number) product.get("price")).doubleValue();
             String productName = (String) product.get("name");
 
@@ -142,30 +204,29 @@ public class BasketItemServiceImpl implements BasketItemService {
             totalAmount += price * item.getQuantity();
         }
 
-        String orderId = UUID.randomUUID().toString();
-
-        // Serialize items to JSON
-        String itemsJson;
-        try {
-            itemsJson = objectMapper.writeValueAsString(orderItems);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to serialize order items");
-        }
-
-        // Save order to database
-        orderService.createOrder(orderId, userId, itemsJson, totalAmount);
+        // Save order and its order_items rows in this transaction
+        orderService.createOrder(orderId, userId, orderItems.stream()
+                .map(item -> new OrderItemDto(item.getProductId(), item.getProductName(), item.getQuantity(), item.getPrice()))
+                .toList(), totalAmount);
+
+        // Stock commits the reservation on its own; if this transaction does not commit, give it back.
+        // Registered before the call, since a timed-out call may still have reserved.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    releaseStock(orderId);
+                }
+            }
+        });
 
-        // Reduce stock for each item
-        for (BasketItem item : items) {
-            restTemplate.put(
-                    STOCK_SERVICE_URL + "/products/" + item.getProductId() + "/reduce-stock",
-                    Map.of("quantity", item.getQuantity())
-            );
-        }
+        // Reserve stock for all items in one all-or-nothing call
+        stockClient.reserveStock(orderId, items.stream()
+                .collect(Collectors.toMap(BasketItem::getProductId, BasketItem::getQuantity, Integer::sum)));
 
-        // Publish order created event
+        // Queue order created event in the outbox, relayed to RabbitMQ after commit
         eventPublisher.publishOrderCreated(
-                new OrderCreatedEvent(orderId, userId, userEmail, orderItems, totalAmount)
+                new OrderCreatedEvent(orderId, userId, email, orderItems, totalAmount)
         );
 
         // Clear basket
@@ -179,56 +240,119 @@ public class BasketItemServiceImpl implements BasketItemService {
         return result;
     }
 
-    private Map<String, Object> getProductInfo(int productId) {
-        ResponseEntity<Map> response = restTemplate.getForEntity(
-                STOCK_SERVICE_URL + "/products/" + productId, Map.class);
-        return response.getBody();
+    private void releaseStock(String orderId) {
+        try {
+            stockClient.releaseStock(orderId);
+        } catch (RuntimeException e) {
+            // Release is idempotent per order, it can be repeated by hand once stock is back
+            logger.error("Releasing stock for rolled back order {} failed: {}", orderId, e.getMessage());
+        }
+    }
+
+    private String resolveEmail(int userId) {
+        String email = principalEmail(userId);
+        return email != null ? email : userRegistry.getEmail(userId);
     }
 
-    private String getUserEmail(int userId) {
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                    AUTH_SERVICE_URL + "/users/" + userId, Map.class);
-            Map<String, Object> user = response.getBody();
-            return user != null ? (String) user.get("email") : null;
-        } catch (Exception e) {
-            return null;
+    // A verified token for the same user already carries the email, no lookup needed.
+    // Reads the request, so it must run on the request thread.
+    private String principalEmail(int userId) {
+        UserPrincipal principal = UserPrincipal.current();
+        if (principal != null && principal.getUserId() == userId) {
+            return principal.getEmail();
         }
+        return null;
     }
 
-    private void validateUserExists(int userId) {
-        try {
-            restTemplate.getForEntity(AUTH_SERVICE_URL + "/users/" + userId, Object.class);
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new RuntimeException("User not found with id: " + userId);
-        } catch (Exception e) {
-            throw new RuntimeException("Auth service is not available");
+    // Lookups running on the checkout executor for one checkout. They are plain FutureTasks, so
+    // cancelling one interrupts its worker thread: a call waiting on the bulkhead or for a pooled
+    // connection stops at once, one blocked on a socket read still ends at the client read timeout.
+    private class ParallelCalls {
+
+        private final List<FutureTask<?>> tasks = new ArrayList<>();
+        private final CompletableFuture<Void> settled = new CompletableFuture<>();
+        // Starts at one for the submitting thread, so calls that finish early cannot settle before all are submitted
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        <T> Future<T> submit(Callable<T> call) {
+            FutureTask<T> task = new FutureTask<>(call) {
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    try {
+                        get();
+                        if (pending.decrementAndGet() == 0) {
+                            settled.complete(null);
+                        }
+                    } catch (ExecutionException e) {
+                        settled.completeExceptionally(e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            tasks.add(task);
+            pending.incrementAndGet();
+            checkoutExecutor.execute(task);
+            return task;
+        }
+
+        // Waits for all calls within the checkout deadline; the first failure or the deadline
+        // cancels whatever has not finished yet
+        void awaitAll() {
+            if (pending.decrementAndGet() == 0) {
+                settled.complete(null);
+            }
+            try {
+                settled.get(checkoutDeadlineMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new RuntimeException("Checkout timed out waiting for stock and auth");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Checkout was interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                cancelAll();
+            }
+        }
+
+        void cancelAll() {
+            tasks.forEach(task -> task.cancel(true));
+        }
+
+        // Only called after awaitAll has seen every call succeed
+        <T> T result(Future<T> call) {
+            try {
+                return call.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Checkout was interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
         }
     }
 
-    private void validateProductExists(int productId) {
+    private void checkProductStock(int productId, int requestedQuantity) {
+        Map<String, Object> product;
         try {
-            restTemplate.getForEntity(STOCK_SERVICE_URL + "/products/" + productId, Object.class);
+            product = stockClient.getProduct(productId);
         } catch (HttpClientErrorException.NotFound e) {
             throw new RuntimeException("Product not found with id: " + productId);
         } catch (Exception e) {
             throw new RuntimeException("Stock service is not available");
         }
-    }
-
-    private void checkProductStock(int productId, int requestedQuantity) {
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                    STOCK_SERVICE_URL + "/products/" + productId, Map.class);
-            Map<String, Object> product = response.getBody();
-            if (product != null) {
-                int availableQuantity = (int) product.get("quantity");
-                if (availableQuantity < requestedQuantity) {
-                    throw new RuntimeException("Insufficient stock. Available: " + availableQuantity + ", Requested: " + requestedQuantity);
-                }
+        if (product != null) {
+            int availableQuantity = ((Number) product.get("quantity")).intValue();
+            if (availableQuantity < requestedQuantity) {
+                throw new RuntimeException("Insufficient stock. Available: " + availableQuantity + ", Requested: " + requestedQuantity);
             }
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new RuntimeException("Product not found with id: " + productId);
         }
     }
 
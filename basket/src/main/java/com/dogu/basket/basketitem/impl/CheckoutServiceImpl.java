@@ -0,0 +1,317 @@
+package com.dogu.basket.basketitem.impl;
+
+import com.dogu.basket.basketitem.api.BasketItemService;
+import com.dogu.basket.basketitem.api.CheckoutInProgressException;
+import com.dogu.basket.basketitem.api.CheckoutJobDto;
+import com.dogu.basket.basketitem.api.CheckoutService;
+import com.dogu.basket.basketitem.api.CheckoutResult;
+import com.dogu.basket.client.StockClient;
+import com.dogu.basket.order.api.OrderDto;
+import com.dogu.basket.order.api.OrderService;
+import com.dogu.basket.security.UserPrincipal;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutServiceImpl.class);
+
+    public static final String CHECKOUT_JOBS_MAP = "checkout-jobs";
+
+    @Autowired
+    BasketItemService basketItemService;
+
+    @Autowired
+    BasketItemRepository basketItemRepository;
+
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    IdempotencyKeys idempotencyKeys;
+
+    @Autowired
+    UserLocks userLocks;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    StockClient stockClient;
+
+    @Value("${basket.checkout.idempotency.in-flight-wait-ms:3000}")
+    private long inFlightWaitMs;
+
+    @Value("${basket.checkout.idempotency.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    @Value("${basket.checkout.async.workers:8}")
+    private int workers;
+
+    @Value("${basket.checkout.async.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // One single-threaded lane per worker; a user always lands on the same lane of this instance,
+    // so checkouts sent to this instance run one at a time and in arrival order. Lanes are per JVM:
+    // requests of one user spread over several instances only share the user lock, which keeps
+    // their checkouts from overlapping but does not order them.
+    private ThreadPoolExecutor[] lanes;
+
+    @PostConstruct
+    public void start() {
+        lanes = new ThreadPoolExecutor[workers];
+        for (int i = 0; i < workers; i++) {
+            String name = "checkout-worker-" + i;
+            // A lane spends most of its time blocked on the stock call and the database; as a virtual
+            // thread it parks there, and one thread per lane still keeps its checkouts in order
+            ThreadFactory threadFactory = virtualThreads
+                    ? new VirtualThreadTaskExecutor(name).getVirtualThreadFactory()
+                    : runnable -> new Thread(runnable, name);
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public CheckoutResult checkout(int userId, String idempotencyKey) {
+        String userEmail = callerEmail(userId);
+        String orderId = UUID.randomUUID().toString();
+        if (idempotencyKey == null) {
+            return placeOrder(userId, orderId, userEmail);
+        }
+
+        IdempotencyRecord existing = awaitInFlight(userId, idempotencyKey, orderId);
+        if (existing != null) {
+            return existing.getResult();
+        }
+
+        // The key is marked done only after the checkout transaction has committed
+        CheckoutResult result;
+        try {
+            result = placeOrder(userId, orderId, userEmail);
+        } catch (RuntimeException e) {
+            releaseUnlessPlaced(userId, idempotencyKey, orderId);
+            throw e;
+        }
+        idempotencyKeys.complete(userId, idempotencyKey, orderId, result);
+        return result;
+    }
+
+    // An error after the order committed (a failed unlock, a lost response) must not free the key,
+    // or a retry would place the order twice; the key then stays claimed until its TTL
+    private void releaseUnlessPlaced(int userId, String idempotencyKey, String orderId) {
+        OrderDto order;
+        try {
+            order = orderService.findByOrderId(orderId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not check order {}, keeping its idempotency key: {}", orderId, e.getMessage());
+            return;
+        }
+        if (order == null) {
+            idempotencyKeys.release(userId, idempotencyKey, orderId);
+        } else {
+            logger.warn("Checkout {} for user {} failed after its order was saved, keeping its idempotency key",
+                    orderId, userId);
+        }
+    }
+
+        // A repeat of a key whose first call is still running waits for that call's result.
+    // If the first call fails and frees the key meanwhile, this call claims it and runs the checkout.
+    // Returns null once this call owns the key, otherwise the finished record.
+    private IdempotencyRecord awaitInFlight(int userId, String idempotencyKey, String orderId) {
+        long waitUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(inFlightWaitMs);
+        while (true) {
+            IdempotencyRecord existing = idempotencyKeys.claim(userId, idempotencyKey, orderId);
+            if (existing == null || existing.getResult() != null) {
+                return existing;
+            }
+            if (System.nanoTime() - waitUntil >= 0) {
+                throw new CheckoutInProgressException(existing.getOrderId());
+            }
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CheckoutInProgressException(existing.getOrderId());
+            }
+        }
+    }
+
+    @Override
+    public CheckoutJobDto submit(int userId, String idempotencyKey) {
+        String orderId = UUID.randomUUID().toString();
+        if (idempotencyKey != null) {
+            IdempotencyRecord existing = idempotencyKeys.claim(userId, idempotencyKey, orderId);
+            if (existing != null) {
+                return existingJob(userId, existing);
+            }
+        }
+
+        CheckoutJobDto job = new CheckoutJobDto();
+        job.setOrderId(orderId);
+        job.setUserId(userId);
+        job.setStatus(CheckoutJobDto.QUEUED);
+        job.setOwnerMember(localMember());
+        job.setIdempotencyKey(idempotencyKey);
+        try {
+            if (!basketItemRepository.existsByUserId(userId)) {
+                throw new RuntimeException("Basket is empty");
+            }
+
+            // Request attributes are gone on the worker thread, so take the caller's email now
+            String userEmail = callerEmail(userId);
+            jobs().set(orderId, job);
+            try {
+                lanes[Math.floorMod(userId, lanes.length)].execute(() -> process(job, userEmail, idempotencyKey));
+            } catch (RejectedExecutionException e) {
+                jobs().delete(orderId);
+                throw new RuntimeException("Too many checkouts in progress, please retry");
+            }
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                idempotencyKeys.release(userId, idempotencyKey, orderId);
+            }
+            throw e;
+        }
+        return job;
+    }
+
+    @Override
+    public CheckoutJobDto get(String orderId) {
+        return jobs().get(orderId);
+    }
+
+    private void process(CheckoutJobDto job, String userEmail, String idempotencyKey) {
+        job.setStatus(CheckoutJobDto.PROCESSING);
+        jobs().set(job.getOrderId(), job);
+
+        try {
+            CheckoutResult result = placeOrder(job.getUserId(), job.getOrderId(), userEmail);
+            if (idempotencyKey != null) {
+                idempotencyKeys.complete(job.getUserId(), idempotencyKey, job.getOrderId(), result);
+            }
+            job.setStatus(CheckoutJobDto.COMPLETED);
+            job.setTotalAmount(result.getTotalAmount());
+            job.setMessage("Order created successfully");
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                releaseUnlessPlaced(job.getUserId(), idempotencyKey, job.getOrderId());
+            }
+            logger.warn("Checkout {} for user {} failed: {}", job.getOrderId(), job.getUserId(), e.getMessage());
+            job.setStatus(CheckoutJobDto.FAILED);
+            job.setMessage(e.getMessage());
+        }
+        jobs().set(job.getOrderId(), job);
+    }
+
+    // Queued jobs live in this instance's lanes; when an instance leaves the cluster its unfinished
+    // jobs would stay QUEUED or PROCESSING forever, so any surviving member settles them
+    @Scheduled(fixedDelayString = "${basket.checkout.async.orphan-sweep-interval-ms:30000}")
+    public void settleOrphanedJobs() {
+        Set<String> members = hazelcastInstance.getCluster().getMembers().stream()
+                .map(member -> member.getUuid().toString())
+                .collect(Collectors.toSet());
+        for (CheckoutJobDto job : jobs().values(Predicates.in("status", CheckoutJobDto.QUEUED, CheckoutJobDto.PROCESSING))) {
+            if (job.getOwnerMember() != null && !members.contains(job.getOwnerMember())) {
+                settleOrphanedJob(job);
+            }
+        }
+    }
+
+    private void settleOrphanedJob(CheckoutJobDto job) {
+        // The owner may have committed the order right before it went away
+        OrderDto order = orderService.findByOrderId(job.getOrderId());
+        if (order != null) {
+            job.setStatus(CheckoutJobDto.COMPLETED);
+            job.setTotalAmount(order.getTotalAmount());
+            job.setMessage("Order created successfully");
+        } else {
+            // Its transaction died with the instance, but stock may already hold a reservation for it
+            try {
+                stockClient.releaseStock(job.getOrderId());
+            } catch (RuntimeException e) {
+                logger.warn("Releasing stock for orphaned checkout {} failed, retrying on the next sweep: {}",
+                        job.getOrderId(), e.getMessage());
+                return;
+            }
+            if (job.getIdempotencyKey() != null) {
+                idempotencyKeys.release(job.getUserId(), job.getIdempotencyKey(), job.getOrderId());
+            }
+            job.setStatus(CheckoutJobDto.FAILED);
+            job.setMessage("The basket instance running this checkout stopped, please retry");
+        }
+        logger.warn("Checkout {} for user {} was left by member {}, marked {}",
+                job.getOrderId(), job.getUserId(), job.getOwnerMember(), job.getStatus());
+        jobs().set(job.getOrderId(), job);
+    }
+
+    private String localMember() {
+        return hazelcastInstance.getCluster().getLocalMember().getUuid().toString();
+    }
+
+    // Held across the whole transaction, so a concurrent checkout or basket change on
+    // another replica only sees the basket before or after this order
+    private CheckoutResult placeOrder(int userId, String orderId, String userEmail) {
+        return userLocks.withLock(userId, () -> basketItemService.checkout(userId, orderId, userEmail));
+    }
+
+    // A repeated async request gets the first request's job back
+    private CheckoutJobDto existingJob(int userId, IdempotencyRecord existing) {
+        CheckoutJobDto job = jobs().get(existing.getOrderId());
+        if (job != null) {
+            return job;
+        }
+        job = new CheckoutJobDto();
+        job.setOrderId(existing.getOrderId());
+        job.setUserId(userId);
+        if (existing.getResult() != null) {
+            job.setStatus(CheckoutJobDto.COMPLETED);
+            job.setTotalAmount(existing.getResult().getTotalAmount());
+        } else {
+            job.setStatus(CheckoutJobDto.PROCESSING);
+        }
+        return job;
+    }
+
+    private String callerEmail(int userId) {
+        UserPrincipal principal = UserPrincipal.current();
+        return principal != null && principal.getUserId() == userId ? principal.getEmail() : null;
+    }
+
+    private IMap<String, CheckoutJobDto> jobs() {
+        return hazelcastInstance.getMap(CHECKOUT_JOBS_MAP);
+    }
+}
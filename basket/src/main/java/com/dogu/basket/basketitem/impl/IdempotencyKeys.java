@@ -0,0 +1,50 @@
+package com.dogu.basket.basketitem.impl;
+
+import com.dogu.basket.basketitem.api.CheckoutResult;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class IdempotencyKeys {
+
+    public static final String IDEMPOTENCY_MAP = "checkout-idempotency";
+
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    // Long enough to outlive a queued async checkout; a crashed caller frees the key after this
+    @Value("${basket.checkout.idempotency.in-flight-ttl-ms:600000}")
+    private long inFlightTtlMs;
+
+    @Value("${basket.checkout.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    // Returns null when this call now owns the key, otherwise the record left by the first call
+    public IdempotencyRecord claim(int userId, String key, String orderId) {
+        return records().putIfAbsent(id(userId, key), new IdempotencyRecord(orderId, null),
+                inFlightTtlMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void complete(int userId, String key, String orderId, CheckoutResult result) {
+        records().set(id(userId, key), new IdempotencyRecord(orderId, result), ttlMs, TimeUnit.MILLISECONDS);
+    }
+
+    // The checkout failed and was rolled back, so a retry with the same key may run it again
+    public void release(int userId, String key, String orderId) {
+        records().remove(id(userId, key), new IdempotencyRecord(orderId, null));
+    }
+
+    private String id(int userId, String key) {
+        // Keys are only unique per client, so two users may send the same one
+        return userId + ":" + key;
+    }
+
+    private IMap<String, IdempotencyRecord> records() {
+        return hazelcastInstance.getMap(IDEMPOTENCY_MAP);
+    }
+}
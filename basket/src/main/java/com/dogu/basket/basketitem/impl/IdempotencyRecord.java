@@ -0,0 +1,33 @@
+package com.dogu.basket.basketitem.impl;
+
+import com.dogu.basket.basketitem.api.CheckoutResult;
+
+public class IdempotencyRecord implements java.io.Serializable {
+    private String orderId;
+    private CheckoutResult result;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String orderId, CheckoutResult result) {
+        this.orderId = orderId;
+        this.result = result;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    // null while the first checkout with this key is still running
+    public CheckoutResult getResult() {
+        return result;
+    }
+
+    public void setResult(CheckoutResult result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dogu.basket.basketitem.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Cluster-wide lock per user around basket changes and checkout; different users never share a lock
+@Component
+public class UserLocks {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserLocks.class);
+
+    public static final String USER_LOCKS_MAP = "basket-user-locks";
+
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${basket.user-lock.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    // The lease covers the longest a checkout may legitimately run: the parallel lookups, the stock
+    // reservation call and a margin for the order transaction. A stuck holder frees the user after it.
+    @Value("${basket.checkout.deadline-ms:3000}")
+    private long checkoutDeadlineMs;
+
+    @Value("${basket.http-client.read-timeout-ms:5000}")
+    private long reserveTimeoutMs;
+
+    @Value("${basket.user-lock.lease-margin-ms:5000}")
+    private long leaseMarginMs;
+
+    private long leaseMs;
+
+    private Timer acquiredTimer;
+    private Timer timedOutTimer;
+
+    @PostConstruct
+    public void init() {
+        leaseMs = checkoutDeadlineMs + reserveTimeoutMs + leaseMarginMs;
+        acquiredTimer = Timer.builder("basket.user_lock.wait").tag("outcome", "acquired").register(meterRegistry);
+        timedOutTimer = Timer.builder("basket.user_lock.wait").tag("outcome", "timeout").register(meterRegistry);
+    }
+
+    public <T> T withLock(int userId, Supplier<T> action) {
+        IMap<Integer, Boolean> locks = locks();
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = locks.tryLock(userId, waitTimeoutMs, TimeUnit.MILLISECONDS, leaseMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the basket of user " + userId);
+        }
+        (locked ? acquiredTimer : timedOutTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!locked) {
+            throw new RuntimeException("Another basket operation for this user is in progress, please retry");
+        }
+
+        try {
+            return action.get();
+        } finally {
+            unlock(locks, userId);
+        }
+    }
+
+    // Once the lease has run out the lock may be free or held by the next caller; the action
+    // already finished, so a failed unlock is only worth a warning
+    private void unlock(IMap<Integer, Boolean> locks, int userId) {
+        try {
+            if (locks.isLocked(userId)) {
+                locks.unlock(userId);
+            }
+        } catch (IllegalMonitorStateException e) {
+            logger.warn("Lock of user {} was no longer held by this thread, its {} ms lease ran out", userId, leaseMs);
+        } catch (RuntimeException e) {
+            logger.warn("Unlocking the basket of user {} failed: {}", userId, e.getMessage());
+        }
+    }
+
+    private IMap<Integer, Boolean> locks() {
+        return hazelcastInstance.getMap(USER_LOCKS_MAP);
+    }
+}
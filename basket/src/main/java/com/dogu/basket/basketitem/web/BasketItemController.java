@@ -2,8 +2,13 @@ package com.dogu.basket.basketitem.web;
 
 import com.dogu.basket.basketitem.api.BasketItemDto;
 import com.dogu.basket.basketitem.api.BasketItemService;
+import com.dogu.basket.basketitem.api.CheckoutInProgressException;
+import com.dogu.basket.basketitem.api.CheckoutJobDto;
+import com.dogu.basket.basketitem.api.CheckoutService;
 import com.dogu.basket.basketitem.api.CheckoutResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,6 +19,9 @@ public class BasketItemController {
     @Autowired
     BasketItemService service;
 
+    @Autowired
+    CheckoutService checkoutService;
+
     @PostMapping
     public BasketItemResponse save(@RequestBody BasketItemRequest info) {
         BasketItemDto basketItemDto = service.save(toDto(info));
@@ -51,9 +59,20 @@ public class BasketItemController {
         service.delete(id);
     }
 
+    // A repeated Idempotency-Key whose first request is still running gets 409 with that request's orderId
     @PostMapping("/checkout/{userId}")
-    public CheckoutResponse checkout(@PathVariable int userId) {
-        CheckoutResult result = service.checkout(userId);
+    public ResponseEntity<CheckoutResponse> checkout(@PathVariable int userId,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        CheckoutResult result;
+        try {
+            result = checkoutService.checkout(userId, idempotencyKey);
+        } catch (CheckoutInProgressException e) {
+            CheckoutResponse response = new CheckoutResponse();
+            response.orderId = e.getOrderId();
+            response.userId = userId;
+            response.message = e.getMessage();
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
 
         CheckoutResponse response = new CheckoutResponse();
         response.orderId = result.getOrderId();
@@ -61,7 +80,21 @@ public class BasketItemController {
         response.items = result.getItems().stream().map(this::toResponse).toList();
         response.totalAmount = result.getTotalAmount();
         response.message = "Order created successfully";
-        return response;
+        return ResponseEntity.ok(response);
+    }
+
+    // Queues the checkout and answers right away; progress is polled from /orders/{orderId}/status
+    @PostMapping("/checkout/{userId}/async")
+    public ResponseEntity<CheckoutAcceptedResponse> checkoutAsync(@PathVariable int userId,
+                                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        CheckoutJobDto job = checkoutService.submit(userId, idempotencyKey);
+
+        CheckoutAcceptedResponse response = new CheckoutAcceptedResponse();
+        response.orderId = job.getOrderId();
+        response.userId = job.getUserId();
+        response.status = job.getStatus();
+        response.statusUrl = "/orders/" + job.getOrderId() + "/status";
+        return ResponseEntity.accepted().body(response);
     }
 
     public BasketItemResponse toResponse(BasketItemDto dto) {
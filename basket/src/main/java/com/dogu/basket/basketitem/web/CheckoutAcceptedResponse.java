@@ -0,0 +1,8 @@
+package com.dogu.basket.basketitem.web;
+
+public class CheckoutAcceptedResponse {
+    public String orderId;
+    public int userId;
+    public String status;
+    public String statusUrl;
+}
@@ -0,0 +1,68 @@
+package com.dogu.basket.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Component
+public class AuthClient {
+
+    private static final String AUTH_SERVICE_URL = "http://auth";
+    private static final String DEPENDENCY = "auth";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Autowired
+    CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    BulkheadRegistry bulkheadRegistry;
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(DEPENDENCY);
+        bulkhead = bulkheadRegistry.bulkhead(DEPENDENCY);
+    }
+
+    public Map<String, Object> getUser(int userId) {
+        return guarded(() -> restTemplate.exchange(
+                AUTH_SERVICE_URL + "/users/" + userId,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<Map<String, Object>>() {}).getBody());
+    }
+
+    public List<Map<String, Object>> getUserEmails() {
+        return guarded(() -> restTemplate.exchange(
+                AUTH_SERVICE_URL + "/users/emails",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<Map<String, Object>>>() {}).getBody());
+    }
+
+    private <T> T guarded(Supplier<T> request) {
+        try {
+            // The bulkhead sits outside the breaker, so rejected calls are not counted as failures
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, request)).get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new RuntimeException("Auth service is not available");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.dogu.basket.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class StockClient {
+
+    private static final String STOCK_SERVICE_URL = "http://stock";
+    private static final String DEPENDENCY = "stock";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Autowired
+    CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    BulkheadRegistry bulkheadRegistry;
+
+    @Value("${basket.stock-client.staleness-ms:1000}")
+    private long stalenessMs;
+
+    @Value("${basket.stock-client.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${basket.stock-client.fallback-max-age-ms:300000}")
+    private long fallbackMaxAgeMs;
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+
+    private final Map<Integer, CachedProduct> cache = new ConcurrentHashMap<>();
+    private final Map<Integer, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(DEPENDENCY);
+        bulkhead = bulkheadRegistry.bulkhead(DEPENDENCY);
+    }
+
+    public Map<String, Object> getProduct(int productId) {
+        CachedProduct cached = cache.get(productId);
+        if (cached != null && !cached.isStale(stalenessMs)) {
+            return cached.product();
+        }
+
+        // Single-flight: concurrent lookups for the same product wait for one request
+        CompletableFuture<Map<String, Object>> call = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existing = inFlight.putIfAbsent(productId, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            Map<String, Object> product = guarded(() -> restTemplate.exchange(
+                    STOCK_SERVICE_URL + "/products/" + productId,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<Map<String, Object>>() {}).getBody());
+            remember(productId, product);
+            call.complete(product);
+            return product;
+        } catch (RuntimeException e) {
+            // Stock is down or shedding load: an older copy is good enough for the add-to-basket check,
+            // checkout re-reads prices and reserves stock against the live service anyway
+            if (!(e instanceof HttpClientErrorException) && cached != null && !cached.isStale(fallbackMaxAgeMs)) {
+                call.complete(cached.product());
+                return cached.product();
+            }
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(productId, call);
+        }
+    }
+
+    public Map<Integer, Map<String, Object>> getProducts(List<Integer> productIds) {
+        ResponseEntity<List<Map<String, Object>>> response = guarded(() -> restTemplate.exchange(
+                STOCK_SERVICE_URL + "/products/batch",
+                HttpMethod.POST,
+                new HttpEntity<>(productIds),
+                new ParameterizedTypeReference<List<Map<String, Object>>>() {}));
+
+        Map<Integer, Map<String, Object>> products = new HashMap<>();
+        if (response.getBody() != null) {
+            for (Map<String, Object> product : response.getBody()) {
+                int productId = ((Number) product.get("id")).intValue();
+                products.put(productId, product);
+                remember(productId, product);
+            }
+        }
+        return products;
+    }
+
+    // Keyed by orderId, so stock applies a repeated call for the same order only once
+    public void reserveStock(String orderId, Map<Integer, Integer> quantities) {
+        List<Map<String, Integer>> lines = quantities.entrySet().stream()
+                .map(entry -> Map.of("productId", entry.getKey(), "quantity", entry.getValue()))
+                .toList();
+        try {
+            guarded(() -> restTemplate.postForEntity(STOCK_SERVICE_URL + "/products/reserve-stock?orderId={orderId}",
+                    lines, Map.class, orderId));
+        } catch (HttpClientErrorException.Conflict e) {
+            Map<String, Object> body = e.getResponseBodyAs(Map.class);
+            List<String> failures = new ArrayList<>();
+            if (body != null && body.get("lines") instanceof List<?> resultLines) {
+                for (Object resultLine : resultLines) {
+                    Map<?, ?> line = (Map<?, ?>) resultLine;
+                    if (line.get("message") != null) {
+                        failures.add("product " + line.get("productId") + ": " + line.get("message"));
+                    }
+                }
+            }
+            throw new RuntimeException("Stock reservation failed. " + String.join(", ", failures));
+        } finally {
+            quantities.keySet().forEach(cache::remove);
+        }
+    }
+
+    // Gives back what reserveStock took for the order; safe to repeat, and safe to call when
+    // the reservation never arrived at stock
+    public void releaseStock(String orderId) {
+        guarded(() -> restTemplate.postForEntity(STOCK_SERVICE_URL + "/products/release-stock?orderId={orderId}",
+                null, Void.class, orderId));
+    }
+
+    // Fails fast with the usual message when the breaker is open or too many calls are already waiting on stock
+    private <T> T guarded(Supplier<T> request) {
+        try {
+            // The bulkhead sits outside the breaker, so rejected calls are not counted as failures
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, request)).get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new RuntimeException("Stock service is not available");
+        }
+    }
+
+    private void remember(int productId, Map<String, Object> product) {
+        if (product == null) {
+            return;
+        }
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(entry -> entry.isStale(fallbackMaxAgeMs));
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(productId, new CachedProduct(product, System.nanoTime()));
+    }
+
+    private static Map<String, Object> await(CompletableFuture<Map<String, Object>> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record CachedProduct(Map<String, Object> product, long loadedAt) {
+        boolean isStale(long stalenessMs) {
+            return System.nanoTime() - loadedAt > TimeUnit.MILLISECONDS.toNanos(stalenessMs);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.dogu.basket.client;
+
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class UserRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRegistry.class);
+
+    @Autowired
+    AuthClient authClient;
+
+    // userId -> email, kept current by user events from auth
+    private final Int2ObjectHashMap<String> emails = new Int2ObjectHashMap<>();
+    private final IntHashSet deletedBeforeWarmUp = new IntHashSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean warm;
+
+    @Scheduled(fixedDelayString = "${basket.user-registry.warm-up-retry-ms:10000}")
+    public void warmUp() {
+        if (warm) {
+            return;
+        }
+
+        List<Map<String, Object>> users;
+        try {
+            users = authClient.getUserEmails();
+        } catch (RuntimeException e) {
+            logger.warn("User registry warm-up failed, will retry: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Events that arrived while the snapshot was loading are newer, keep them
+            for (Map<String, Object> user : users) {
+                int userId = ((Number) user.get("id")).intValue();
+                String email = (String) user.get("email");
+                if (email != null && !emails.containsKey(userId) && !deletedBeforeWarmUp.contains(userId)) {
+                    emails.put(userId, email);
+                }
+            }
+            deletedBeforeWarmUp.clear();
+            warm = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("User registry warmed up with {} users", users.size());
+    }
+
+    public String getEmail(int userId) {
+        String email;
+        lock.readLock().lock();
+        try {
+            email = emails.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (email != null) {
+            return email;
+        }
+
+        // Not known yet, e.g. the registered event is still on its way: ask auth once
+        Map<String, Object> user;
+        try {
+            user = authClient.getUser(userId);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new RuntimeException("User not found with id: " + userId);
+        } catch (Exception e) {
+            throw new RuntimeException("Auth service is not available");
+        }
+        email = user != null ? (String) user.get("email") : null;
+        if (email == null) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        put(userId, email);
+        return email;
+    }
+
+    public void put(int userId, String email) {
+        if (email == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            emails.put(userId, email);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int userId) {
+        lock.writeLock().lock();
+        try {
+            emails.remove(userId);
+            if (!warm) {
+                deletedBeforeWarmUp.add(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
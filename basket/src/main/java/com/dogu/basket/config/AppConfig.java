@@ -1,14 +1,111 @@
 package com.dogu.basket.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PoolingHttpClientConnectionManager connectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(properties.getReadTimeoutMs()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        // Per-service limits are applied to each instance as it is resolved, see ServiceConnectionPools
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+                                          HttpClientProperties properties) {
+        TimeValue keepAlive = TimeValue.ofMilliseconds(properties.getKeepAliveMs());
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getConnectionRequestTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(properties.getReadTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .build();
+    }
+
+    // Built through RestTemplateBuilder so http.client.requests timers are recorded per destination.
+    // Load-balanced: http://<service-id> URLs resolve to Eureka instances.
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+
+    // Bounded pool for the concurrent lookups inside checkout; a full queue rejects instead of piling up.
+    // Under the virtual-threads profile the workers are virtual threads, so a lookup blocked on HTTP parks
+    // instead of pinning a platform thread, while pool size and queue still bound the concurrency.
+    @Bean
+    public ThreadPoolTaskExecutor checkoutExecutor(@Value("${basket.checkout.executor.pool-size:32}") int poolSize,
+                                                   @Value("${basket.checkout.executor.queue-capacity:256}") int queueCapacity,
+                                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("checkout-");
+        if (virtualThreads) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("checkout-").getVirtualThreadFactory());
+        }
+        return executor;
+    }
+
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager,
+                                             HttpClientProperties properties,
+                                             ServiceConnectionPools servicePools) {
+        return registry -> {
+            new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "basket-outbound").bindTo(registry);
+            for (HttpClientProperties.Route route : properties.getRoutes()) {
+                String serviceId = route.getServiceId();
+                Gauge.builder("basket.http.client.pool.leased", servicePools,
+                                pools -> pools.stats(serviceId).getLeased())
+                        .tag("service", serviceId)
+                        .register(registry);
+                Gauge.builder("basket.http.client.pool.pending", servicePools,
+                                pools -> pools.stats(serviceId).getPending())
+                        .tag("service", serviceId)
+                        .register(registry);
+                Gauge.builder("basket.http.client.pool.max", servicePools,
+                                pools -> pools.stats(serviceId).getMax())
+                        .tag("service", serviceId)
+                        .register(registry);
+            }
+        };
     }
 }
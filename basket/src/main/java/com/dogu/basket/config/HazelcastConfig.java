@@ -35,9 +35,10 @@ public class HazelcastConfig {
         ordersByUserConfig.setTimeToLiveSeconds(300);
         config.addMapConfig(ordersByUserConfig);
 
-        MapConfig ordersAllConfig = new MapConfig("orders-all");
-        ordersAllConfig.setTimeToLiveSeconds(300);
-        config.addMapConfig(ordersAllConfig);
+        // checkout-jobs - asenkron checkout durumlari (1 saat TTL)
+        MapConfig checkoutJobsConfig = new MapConfig("checkout-jobs");
+        checkoutJobsConfig.setTimeToLiveSeconds(3600);
+        config.addMapConfig(checkoutJobsConfig);
 
         // wishlist cache (5 dk TTL)
         MapConfig wishlistConfig = new MapConfig("wishlist-by-user");
@@ -1,5 +1,9 @@
 package com.dogu.basket.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -13,11 +17,33 @@ public class RabbitMQConfig {
     public static final String ORDER_EXCHANGE = "order.exchange";
     public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
 
+    public static final String USER_EXCHANGE = "user.exchange";
+    public static final String USER_EVENTS_ROUTING_KEY = "user.*";
+
     @Bean
     public TopicExchange orderExchange() {
         return new TopicExchange(ORDER_EXCHANGE);
     }
 
+    @Bean
+    public TopicExchange userExchange() {
+        return new TopicExchange(USER_EXCHANGE);
+    }
+
+    // One auto-deleted queue per basket instance: every instance keeps its own user registry,
+    // so each one must see every user event
+    @Bean
+    public Queue userEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userEventsBinding(Queue userEventsQueue, TopicExchange userExchange) {
+        return BindingBuilder.bind(userEventsQueue)
+                .to(userExchange)
+                .with(USER_EVENTS_ROUTING_KEY);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -0,0 +1,69 @@
+package com.dogu.basket.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(ResilienceProperties properties) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        for (Map.Entry<String, ResilienceProperties.Dependency> entry : properties.getDependencies().entrySet()) {
+            ResilienceProperties.Dependency dependency = entry.getValue();
+            registry.circuitBreaker(entry.getKey(), CircuitBreakerConfig.custom()
+                    .failureRateThreshold(dependency.getFailureRateThreshold())
+                    .slowCallRateThreshold(dependency.getSlowCallRateThreshold())
+                    .slowCallDurationThreshold(Duration.ofMillis(dependency.getSlowCallDurationMs()))
+                    .slidingWindowSize(dependency.getSlidingWindowSize())
+                    .minimumNumberOfCalls(dependency.getMinimumNumberOfCalls())
+                    .waitDurationInOpenState(Duration.ofMillis(dependency.getWaitInOpenStateMs()))
+                    // 4xx answers (not found, reservation conflict) mean the dependency is healthy
+                    .ignoreExceptions(HttpClientErrorException.class)
+                    .build());
+        }
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(ResilienceProperties properties) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        for (Map.Entry<String, ResilienceProperties.Dependency> entry : properties.getDependencies().entrySet()) {
+            ResilienceProperties.Dependency dependency = entry.getValue();
+            registry.bulkhead(entry.getKey(), BulkheadConfig.custom()
+                    .maxConcurrentCalls(dependency.getMaxConcurrentCalls())
+                    .maxWaitDuration(Duration.ofMillis(dependency.getMaxWaitMs()))
+                    .build());
+        }
+        return registry;
+    }
+
+    @Bean
+    public MeterBinder resilienceMetrics(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+            for (Bulkhead bulkhead : bulkheadRegistry.getAllBulkheads()) {
+                Counter rejected = Counter.builder("basket.bulkhead.rejected")
+                        .tag("name", bulkhead.getName())
+                        .register(registry);
+                bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.dogu.basket.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "basket.resilience")
+public class ResilienceProperties {
+    private Map<String, Dependency> dependencies = new HashMap<>();
+
+    public Map<String, Dependency> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(Map<String, Dependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    public static class Dependency {
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 100;
+        private long slowCallDurationMs = 2000;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private long waitInOpenStateMs = 10000;
+        private int maxConcurrentCalls = 25;
+        private long maxWaitMs = 0;
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public long getSlowCallDurationMs() {
+            return slowCallDurationMs;
+        }
+
+        public void setSlowCallDurationMs(long slowCallDurationMs) {
+            this.slowCallDurationMs = slowCallDurationMs;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public long getWaitInOpenStateMs() {
+            return waitInOpenStateMs;
+        }
+
+        public void setWaitInOpenStateMs(long waitInOpenStateMs) {
+            this.waitInOpenStateMs = waitInOpenStateMs;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.dogu.basket.config;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Applies the per-service pool limits to every instance the load balancer picks,
+// since instance addresses are only known once Eureka resolves them
+@Component
+public class ServiceConnectionPools implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    @Autowired
+    PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    HttpClientProperties properties;
+
+    // service id -> routes of its instances seen so far
+    private final Map<String, Set<HttpRoute>> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        String serviceId = normalize(instance.getServiceId());
+        HttpRoute route = new HttpRoute(new HttpHost(instance.isSecure() ? "https" : "http",
+                instance.getHost(), instance.getPort()));
+        if (routes.computeIfAbsent(serviceId, id -> ConcurrentHashMap.newKeySet()).add(route)) {
+            Integer maxConnections = maxConnections(serviceId);
+            if (maxConnections != null) {
+                connectionManager.setMaxPerRoute(route, maxConnections);
+            }
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+    }
+
+    // Summed over every instance of the service this client has talked to
+    public PoolStats stats(String serviceId) {
+        int leased = 0;
+        int pending = 0;
+        int available = 0;
+        int max = 0;
+        for (HttpRoute route : routes.getOrDefault(normalize(serviceId), Set.of())) {
+            PoolStats stats = connectionManager.getStats(route);
+            leased += stats.getLeased();
+            pending += stats.getPending();
+            available += stats.getAvailable();
+            max += stats.getMax();
+        }
+        return new PoolStats(leased, pending, available, max);
+    }
+
+    private Integer maxConnections(String serviceId) {
+        for (HttpClientProperties.Route route : properties.getRoutes()) {
+            if (normalize(route.getServiceId()).equals(serviceId)) {
+                return route.getMaxConnections();
+            }
+        }
+        return null;
+    }
+
+    // Eureka reports application names in upper case, URLs use them in lower case
+    private static String normalize(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+}
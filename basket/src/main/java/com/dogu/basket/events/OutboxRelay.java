@@ -0,0 +1,97 @@
+package com.dogu.basket.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${basket.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${basket.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Scheduled(fixedDelayString = "${basket.outbox.relay-interval-ms:200}")
+    public void relay() {
+        try {
+            Integer confirmed;
+            do {
+                confirmed = transactionTemplate.execute(status -> relayBatch());
+            } while (confirmed != null && confirmed == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Send the whole batch first, then wait for the broker confirms
+        List<CorrelationData> correlations = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            CorrelationData correlation = new CorrelationData(String.valueOf(event.getId()));
+            rabbitTemplate.send(event.getExchange(), event.getRoutingKey(), toMessage(event), correlation);
+            correlations.add(correlation);
+        }
+
+        List<Integer> confirmed = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                CorrelationData.Confirm confirm = correlations.get(i).getFuture()
+                        .get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(events.get(i).getId());
+                } else {
+                    logger.warn("Outbox event {} was nacked: {}", events.get(i).getId(), confirm.getReason());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.warn("No confirm for outbox event {}: {}", events.get(i).getId(), e.getMessage());
+            }
+        }
+
+        // Unconfirmed rows stay in the outbox and are sent again on the next run
+        outboxEventRepository.deleteAllByIdInBatch(confirmed);
+        return confirmed.size();
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setHeader("__TypeId__", event.getEventType());
+        properties.setMessageId(String.valueOf(event.getId()));
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
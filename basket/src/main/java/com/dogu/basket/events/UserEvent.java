@@ -0,0 +1,25 @@
+package com.dogu.basket.events;
+
+public class UserEvent {
+    private int userId;
+    private String email;
+
+    public UserEvent() {
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,33 @@
+package com.dogu.basket.events;
+
+import com.dogu.basket.client.UserRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEventListener.class);
+
+    private static final String USER_DELETED_ROUTING_KEY = "user.deleted";
+
+    @Autowired
+    private UserRegistry userRegistry;
+
+    // user.registered, user.updated and user.deleted all arrive on the same queue, in publish order
+    @RabbitListener(queues = "#{userEventsQueue.name}")
+    public void handleUserEvent(UserEvent event, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        logger.debug("User event {} for userId={}", routingKey, event.getUserId());
+
+        if (USER_DELETED_ROUTING_KEY.equals(routingKey)) {
+            userRegistry.remove(event.getUserId());
+        } else {
+            userRegistry.put(event.getUserId(), event.getEmail());
+        }
+    }
+}
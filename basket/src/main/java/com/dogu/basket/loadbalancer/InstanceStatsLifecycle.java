@@ -0,0 +1,71 @@
+package com.dogu.basket.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InstanceStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    @Autowired
+    InstanceStatsRegistry statsRegistry;
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        statsRegistry.started(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+
+        // The load balancer interceptor completes before RestTemplate's error handler runs, so every
+        // answered call arrives here with its status; FAILED only means no response (connect or read error)
+        if (completionContext.status() == CompletionContext.Status.FAILED || isUnavailable(completionContext.getClientResponse())) {
+            statsRegistry.failed(instance);
+            return;
+        }
+
+        long latencyNanos = 0;
+        if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() > 0) {
+            latencyNanos = System.nanoTime() - context.getRequestStartTime();
+        }
+        statsRegistry.succeeded(instance, latencyNanos);
+    }
+
+    // Business errors (4xx, plain 500s) say nothing about instance health; 502/503/504 do
+    private static boolean isUnavailable(Object clientResponse) {
+        if (!(clientResponse instanceof ResponseData responseData)) {
+            return false;
+        }
+        HttpStatusCode status = responseData.getHttpStatus();
+        return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+    }
+}
@@ -0,0 +1,21 @@
+package com.dogu.basket.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Applied to every load-balanced client through @LoadBalancerClients, so deliberately not a @Configuration
+public class PowerOfTwoChoicesLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> powerOfTwoChoicesLoadBalancer(Environment environment,
+                                                                              LoadBalancerClientFactory clientFactory,
+                                                                              InstanceStatsRegistry statsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PowerOfTwoChoicesLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), statsRegistry);
+    }
+}
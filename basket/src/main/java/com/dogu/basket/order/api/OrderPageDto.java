@@ -0,0 +1,15 @@
+package com.dogu.basket.order.api;
+
+import java.util.List;
+
+public class OrderPageDto implements java.io.Serializable {
+    private List<OrderDto> orders;
+    private String nextCursor;
+
+    public List<OrderDto> getOrders() { return orders; }
+    public void setOrders(List<OrderDto> orders) { this.orders = orders; }
+
+    // null on the last page
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -1,14 +1,19 @@
 package com.dogu.basket.order.api;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderService {
-    OrderDto createOrder(String orderId, int userId, String itemsJson, double totalAmount);
+    OrderDto createOrder(String orderId, int userId, List<OrderItemDto> items, double totalAmount);
     OrderDto getByOrderId(String orderId);
-    List<OrderDto> getByUserId(int userId);
-    List<OrderDto> getAll();
+    OrderDto findByOrderId(String orderId);
+    OrderPageDto getPageByUserId(int userId, String cursor, int size);
+    OrderPageDto getPage(String cursor, int size);
     OrderDto updateStatus(String orderId, String status);
     OrderDto cancelOrder(String orderId);
-    List<OrderDto> getByStatus(String status);
+    OrderPageDto getPageByStatus(String status, String cursor, int size);
     long countByStatus(String status);
+    OrderStatsDto getStats();
+    ProductSalesDto getProductSales(int productId, LocalDateTime since);
+    List<ProductSalesDto> getBestSellers(LocalDateTime since, int limit);
 }
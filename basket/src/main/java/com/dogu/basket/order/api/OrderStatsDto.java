@@ -0,0 +1,27 @@
+package com.dogu.basket.order.api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class OrderStatsDto implements java.io.Serializable {
+    private long totalOrders;
+    private double totalRevenue;
+    private Map<String, Long> ordersByStatus = new HashMap<>();
+    private Map<String, Double> revenueByStatus = new HashMap<>();
+
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+
+    public double getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(double totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public Map<String, Long> getOrdersByStatus() { return ordersByStatus; }
+    public void setOrdersByStatus(Map<String, Long> ordersByStatus) { this.ordersByStatus = ordersByStatus; }
+
+    public Map<String, Double> getRevenueByStatus() { return revenueByStatus; }
+    public void setRevenueByStatus(Map<String, Double> revenueByStatus) { this.revenueByStatus = revenueByStatus; }
+
+    public long countOf(String status) {
+        return ordersByStatus.getOrDefault(status, 0L);
+    }
+}
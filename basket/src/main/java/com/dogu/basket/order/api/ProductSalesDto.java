@@ -0,0 +1,16 @@
+package com.dogu.basket.order.api;
+
+public class ProductSalesDto implements java.io.Serializable {
+    private int productId;
+    private long quantity;
+    private double revenue;
+
+    public int getProductId() { return productId; }
+    public void setProductId(int productId) { this.productId = productId; }
+
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,38 @@
+package com.dogu.basket.order.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderCounter implements java.io.Serializable {
+    private long orders;
+    private double revenue;
+
+    // Table snapshot the counter was last rebuilt from; deltas of transactions it already saw are skipped
+    private TxSnapshot snapshot;
+    // While a rebuild runs: its id and the deltas applied meanwhile, which it may have to add back
+    private String rebuildId;
+    private List<OrderCounterDelta> appliedDuringRebuild = new ArrayList<>();
+
+    public OrderCounter() {
+    }
+
+    public OrderCounter(long orders, double revenue) {
+        this.orders = orders;
+        this.revenue = revenue;
+    }
+
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+
+    public TxSnapshot getSnapshot() { return snapshot; }
+    public void setSnapshot(TxSnapshot snapshot) { this.snapshot = snapshot; }
+
+    public String getRebuildId() { return rebuildId; }
+    public void setRebuildId(String rebuildId) { this.rebuildId = rebuildId; }
+
+    public List<OrderCounterDelta> getAppliedDuringRebuild() { return appliedDuringRebuild; }
+    public void setAppliedDuringRebuild(List<OrderCounterDelta> appliedDuringRebuild) { this.appliedDuringRebuild = appliedDuringRebuild; }
+}
@@ -0,0 +1,33 @@
+package com.dogu.basket.order.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.Map;
+
+public class OrderCounterAdjustProcessor implements EntryProcessor<String, OrderCounter, Void> {
+
+    private final OrderCounterDelta delta;
+
+    public OrderCounterAdjustProcessor(OrderCounterDelta delta) {
+        this.delta = delta;
+    }
+
+    @Override
+    public Void process(Map.Entry<String, OrderCounter> entry) {
+        OrderCounter counter = entry.getValue();
+        if (counter == null) {
+            counter = new OrderCounter();
+        }
+        // Already part of the table totals the counter was rebuilt from
+        if (delta.getTxId() != null && counter.getSnapshot() != null && counter.getSnapshot().isVisible(delta.getTxId())) {
+            return null;
+        }
+        counter.setOrders(counter.getOrders() + delta.getOrders());
+        counter.setRevenue(counter.getRevenue() + delta.getRevenue());
+        if (counter.getRebuildId() != null) {
+            counter.getAppliedDuringRebuild().add(delta);
+        }
+        entry.setValue(counter);
+        return null;
+    }
+}
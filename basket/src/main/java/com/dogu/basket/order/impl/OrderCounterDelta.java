@@ -0,0 +1,17 @@
+package com.dogu.basket.order.impl;
+
+public class OrderCounterDelta implements java.io.Serializable {
+    private final Long txId;
+    private final long orders;
+    private final double revenue;
+
+    public OrderCounterDelta(Long txId, long orders, double revenue) {
+        this.txId = txId;
+        this.orders = orders;
+        this.revenue = revenue;
+    }
+
+    public Long getTxId() { return txId; }
+    public long getOrders() { return orders; }
+    public double getRevenue() { return revenue; }
+}
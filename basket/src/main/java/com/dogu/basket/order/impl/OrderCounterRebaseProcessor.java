@@ -0,0 +1,44 @@
+package com.dogu.basket.order.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+// Replaces the counter with the table totals read under the snapshot, plus the deltas applied
+// during the rebuild that the snapshot did not see yet. Returns how many orders the old value was off by.
+public class OrderCounterRebaseProcessor implements EntryProcessor<String, OrderCounter, Long> {
+
+    private final String rebuildId;
+    private final long orders;
+    private final double revenue;
+    private final TxSnapshot snapshot;
+
+    public OrderCounterRebaseProcessor(String rebuildId, long orders, double revenue, TxSnapshot snapshot) {
+        this.rebuildId = rebuildId;
+        this.orders = orders;
+        this.revenue = revenue;
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Long process(Map.Entry<String, OrderCounter> entry) {
+        OrderCounter previous = entry.getValue() != null ? entry.getValue() : new OrderCounter();
+        // No delta has reached a missing entry, so the totals alone are exact for it
+        if (entry.getValue() != null && !rebuildId.equals(previous.getRebuildId())) {
+            return null;
+        }
+
+        OrderCounter counter = new OrderCounter(orders, revenue);
+        for (OrderCounterDelta delta : previous.getAppliedDuringRebuild()) {
+            if (delta.getTxId() == null || !snapshot.isVisible(delta.getTxId())) {
+                counter.setOrders(counter.getOrders() + delta.getOrders());
+                counter.setRevenue(counter.getRevenue() + delta.getRevenue());
+            }
+        }
+        counter.setSnapshot(snapshot);
+        counter.setAppliedDuringRebuild(new ArrayList<>());
+        entry.setValue(counter);
+        return previous.getOrders() - counter.getOrders();
+    }
+}
@@ -0,0 +1,25 @@
+package com.dogu.basket.order.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+// Starts recording the deltas applied while the table totals are being read
+public class OrderCounterRebuildStartProcessor implements EntryProcessor<String, OrderCounter, Void> {
+
+    private final String rebuildId;
+
+    public OrderCounterRebuildStartProcessor(String rebuildId) {
+        this.rebuildId = rebuildId;
+    }
+
+    @Override
+    public Void process(Map.Entry<String, OrderCounter> entry) {
+        OrderCounter counter = entry.getValue() != null ? entry.getValue() : new OrderCounter();
+        counter.setRebuildId(rebuildId);
+        counter.setAppliedDuringRebuild(new ArrayList<>());
+        entry.setValue(counter);
+        return null;
+    }
+}
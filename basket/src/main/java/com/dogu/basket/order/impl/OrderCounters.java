@@ -0,0 +1,190 @@
+package com.dogu.basket.order.impl;
+
+import com.dogu.basket.order.api.OrderStatsDto;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Running order count and revenue per status, kept in Hazelcast so every replica reads the same numbers
+@Component
+public class OrderCounters implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCounters.class);
+
+    public static final String ORDER_COUNTERS_MAP = "order-counters";
+
+    private static final String LOCKS_MAP = "basket-maintenance-locks";
+    private static final String LOCK_KEY = "order-counters-reconcile";
+
+    private static final List<String> STATUSES = List.of("PENDING", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELLED");
+
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    public void orderCreated(String status, double amount) {
+        Long txId = currentTxId();
+        afterCommit(() -> adjust(status, new OrderCounterDelta(txId, 1, amount)));
+    }
+
+    public void orderMoved(String fromStatus, String toStatus, double amount) {
+        if (fromStatus != null && fromStatus.equals(toStatus)) {
+            return;
+        }
+        Long txId = currentTxId();
+        afterCommit(() -> {
+            adjust(fromStatus, new OrderCounterDelta(txId, -1, -amount));
+            adjust(toStatus, new OrderCounterDelta(txId, 1, amount));
+        });
+    }
+
+    public OrderStatsDto snapshot() {
+        OrderStatsDto stats = new OrderStatsDto();
+        for (Map.Entry<String, OrderCounter> entry : counters().entrySet()) {
+            OrderCounter counter = entry.getValue();
+            stats.getOrdersByStatus().put(entry.getKey(), counter.getOrders());
+            stats.getRevenueByStatus().put(entry.getKey(), counter.getRevenue());
+            stats.setTotalOrders(stats.getTotalOrders() + counter.getOrders());
+            stats.setTotalRevenue(stats.getTotalRevenue() + counter.getRevenue());
+        }
+        return stats;
+    }
+
+    // Rebuilds the counters from the orders table; also fills them on startup.
+    // Fixes drift from a replica that died between commit and applying its deltas.
+    // Deltas carry their Postgres transaction id and the rebuild keeps the snapshot its totals were
+    // read under, so a delta is counted exactly once whether it lands before, during or after the rebuild.
+    @Scheduled(fixedDelayString = "${basket.order-counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        // One replica rebuilds at a time, the others keep serving the shared counters
+        IMap<String, Boolean> locks = hazelcastInstance.getMap(LOCKS_MAP);
+        if (!locks.tryLock(LOCK_KEY)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Order counter rebuild failed, retrying on the next run: {}", e.getMessage());
+        } finally {
+            locks.unlock(LOCK_KEY);
+        }
+    }
+
+    private void rebuild() {
+        IMap<String, OrderCounter> counters = counters();
+        String rebuildId = UUID.randomUUID().toString();
+        Set<String> statuses = new LinkedHashSet<>(STATUSES);
+        statuses.addAll(counters.keySet());
+        counters.executeOnKeys(statuses, new OrderCounterRebuildStartProcessor(rebuildId));
+
+        // Totals and snapshot from the same repeatable-read transaction
+        TransactionTemplate snapshotRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotRead.setReadOnly(true);
+        Map<String, OrderCounter> rebuilt = new HashMap<>();
+        TxSnapshot snapshot = snapshotRead.execute(status -> {
+            TxSnapshot taken = TxSnapshot.parse(jdbcTemplate.queryForObject("SELECT pg_current_snapshot()::text", String.class));
+            for (OrderStatusTotals totals : orderRepository.sumByStatus()) {
+                rebuilt.put(totals.getStatus(), new OrderCounter(totals.getOrders(), totals.getRevenue()));
+            }
+            return taken;
+        });
+        statuses.addAll(rebuilt.keySet());
+
+        for (String status : statuses) {
+            OrderCounter totals = rebuilt.getOrDefault(status, new OrderCounter());
+            Long drift = counters.executeOnKey(status,
+                    new OrderCounterRebaseProcessor(rebuildId, totals.getOrders(), totals.getRevenue(), snapshot));
+            if (drift == null) {
+                logger.debug("Order counter for {} appeared while the rebuild ran, left for the next run", status);
+            } else if (drift != 0) {
+                logger.warn("Order counter for {} drifted by {} orders", status, drift);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String status : STATUSES) {
+            Gauge.builder("basket.orders", () -> current(status).getOrders())
+                    .tag("status", status)
+                    .register(registry);
+            Gauge.builder("basket.orders.revenue", () -> current(status).getRevenue())
+                    .tag("status", status)
+                    .register(registry);
+        }
+    }
+
+    private OrderCounter current(String status) {
+        OrderCounter counter = counters().get(status);
+        return counter != null ? counter : new OrderCounter();
+    }
+
+    private void adjust(String status, OrderCounterDelta delta) {
+        if (status != null) {
+            counters().executeOnKey(status, new OrderCounterAdjustProcessor(delta));
+        }
+    }
+
+    // Postgres id of the transaction the change commits with, null outside a transaction
+    private Long currentTxId() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject("SELECT pg_current_xact_id()::text::bigint", Long.class);
+    }
+
+    // Counters only move with committed orders, a rolled back checkout leaves them untouched
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    // The order itself is already saved; a missed delta is corrected by the next reconcile
+    private void apply(Runnable change) {
+        try {
+            change.run();
+        } catch (RuntimeException e) {
+            logger.warn("Order counter update failed: {}", e.getMessage());
+        }
+    }
+
+    private IMap<String, OrderCounter> counters() {
+        return hazelcastInstance.getMap(ORDER_COUNTERS_MAP);
+    }
+}
@@ -0,0 +1,120 @@
+package com.dogu.basket.order.impl;
+
+import com.dogu.basket.order.api.OrderItemDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Copies the lines of orders created before order_items existed out of their JSON column
+@Component
+public class OrderItemBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderItemBackfill.class);
+
+    private static final String LOCKS_MAP = "basket-maintenance-locks";
+    private static final String LOCK_KEY = "order-items-backfill";
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    OrderItemRepository orderItemRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Value("${basket.order-items.backfill-batch-size:200}")
+    private int batchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private volatile boolean stopping;
+    private Thread worker;
+
+    // Runs on its own thread so a large backlog never holds up startup or the scheduler threads
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = new Thread(this::backfill, "order-items-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        if (worker != null) {
+            worker.join(10000);
+        }
+    }
+
+    void backfill() {
+        // Only one replica copies; the others skip it
+        IMap<String, Boolean> locks = hazelcastInstance.getMap(LOCKS_MAP);
+        if (!locks.tryLock(LOCK_KEY)) {
+            return;
+        }
+        try {
+            int lastId = 0;
+            int copied = 0;
+            while (!stopping) {
+                int afterId = lastId;
+                List<Order> orders = orderRepository.findWithoutItemsAfter(afterId, PageRequest.ofSize(batchSize));
+                if (orders.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> orderItemRepository.saveAll(toItems(orders)));
+                lastId = orders.get(orders.size() - 1).getId();
+                copied += orders.size();
+            }
+            if (copied > 0) {
+                logger.info("Copied the items of {} orders into order_items", copied);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Order items backfill stopped, it resumes on the next start: {}", e.getMessage());
+        } finally {
+            locks.unlock(LOCK_KEY);
+        }
+    }
+
+    private List<OrderItem> toItems(List<Order> orders) {
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getItems() == null || order.getItems().isEmpty()) {
+                continue;
+            }
+            try {
+                for (OrderItemDto line : objectMapper.readValue(order.getItems(), new TypeReference<List<OrderItemDto>>() {})) {
+                    OrderItem item = new OrderItem();
+                    item.setOrder(order);
+                    item.setProductId(line.getProductId());
+                    item.setProductName(line.getProductName());
+                    item.setQuantity(line.getQuantity());
+                    item.setUnitPrice(line.getPrice());
+                    items.add(item);
+                }
+            } catch (Exception e) {
+                logger.warn("Skipping order {}, its items JSON cannot be read: {}", order.getOrderId(), e.getMessage());
+            }
+        }
+        return items;
+    }
+}
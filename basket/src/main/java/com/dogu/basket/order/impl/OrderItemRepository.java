@@ -0,0 +1,30 @@
+package com.dogu.basket.order.impl;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
+    // Cancelled orders are not counted as sold in either query.
+    // One product's sales start from the order_items product_id index.
+    @Query("SELECT i.productId AS productId, SUM(i.quantity) AS quantity, SUM(i.quantity * i.unitPrice) AS revenue " +
+            "FROM OrderItem i JOIN i.order o " +
+            "WHERE i.productId = :productId AND o.createdAt >= :since AND o.status <> 'CANCELLED' " +
+            "GROUP BY i.productId")
+    List<ProductSalesTotals> sumSalesOfProductSince(@Param("productId") int productId,
+                                                    @Param("since") LocalDateTime since);
+
+    // No product filter here: the window starts from the orders created_at index and reaches
+    // the lines through the order_id index
+    @Query("SELECT i.productId AS productId, SUM(i.quantity) AS quantity, SUM(i.quantity * i.unitPrice) AS revenue " +
+            "FROM OrderItem i JOIN i.order o " +
+            "WHERE o.createdAt >= :since AND o.status <> 'CANCELLED' " +
+            "GROUP BY i.productId ORDER BY SUM(i.quantity) DESC")
+    List<ProductSalesTotals> findBestSellersSince(@Param("since") LocalDateTime since, Pageable page);
+}
@@ -1,15 +1,57 @@
 package com.dogu.basket.order.impl;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
     Optional<Order> findByOrderId(String orderId);
-    List<Order> findByUserId(int userId);
-    List<Order> findByStatus(String status);
+
+    // Status changes read the current status under a row lock, so concurrent changes of the
+    // same order apply one after the other and each counter delta starts from the right status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findByOrderIdForUpdate(@Param("orderId") String orderId);
     long countByStatus(String status);
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orders, COALESCE(SUM(o.totalAmount), 0) AS revenue " +
+            "FROM Order o GROUP BY o.status")
+    List<OrderStatusTotals> sumByStatus();
+
+    // Orders placed before order_items existed, only their JSON column has the lines
+    @Query("SELECT o FROM Order o WHERE o.id > :afterId " +
+            "AND NOT EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = o) ORDER BY o.id")
+    List<Order> findWithoutItemsAfter(@Param("afterId") int afterId, Pageable page);
+
+    // Keyset pages, newest first; the cursor is the (createdAt, id) of the last row of the previous page
+    List<Order> findAllByOrderByCreatedAtDescIdDesc(Pageable page);
+
+    @Query("SELECT o FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") int id, Pageable page);
+
+    List<Order> findByStatusOrderByCreatedAtDescIdDesc(String status, Pageable page);
+
+    @Query("SELECT o FROM Order o WHERE o.status = :status " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByStatusAfter(@Param("status") String status, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") int id, Pageable page);
+
+    List<Order> findByUserIdOrderByCreatedAtDescIdDesc(int userId, Pageable page);
+
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserIdAfter(@Param("userId") int userId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") int id, Pageable page);
 }
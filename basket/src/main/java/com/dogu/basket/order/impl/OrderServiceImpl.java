@@ -1,12 +1,21 @@
 package com.dogu.basket.order.impl;
 
 import com.dogu.basket.order.api.OrderDto;
+import com.dogu.basket.order.api.OrderItemDto;
+import com.dogu.basket.order.api.OrderPageDto;
 import com.dogu.basket.order.api.OrderService;
+import com.dogu.basket.order.api.OrderStatsDto;
+import com.dogu.basket.order.api.ProductSalesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,20 +26,32 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderCounters orderCounters;
+
+    @Value("${basket.orders.max-page-size:100}")
+    private int maxPageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "orders-by-user", allEntries = true),
-            @CacheEvict(value = "orders-all", allEntries = true)
-    })
-    public OrderDto createOrder(String orderId, int userId, String itemsJson, double totalAmount) {
+    @Transactional
+    @CacheEvict(value = "orders-by-user", allEntries = true)
+    public OrderDto createOrder(String orderId, int userId, List<OrderItemDto> items, double totalAmount) {
         Order order = new Order();
         order.setOrderId(orderId);
         order.setUserId(userId);
-        order.setItems(itemsJson);
+        // The JSON column is kept as a copy of the order_items rows for existing readers
+        order.setItems(toJson(items));
         order.setTotalAmount(totalAmount);
         order.setStatus("PENDING");
         order.setCreatedAt(LocalDateTime.now());
         orderRepository.save(order);
+        orderItemRepository.saveAll(items.stream().map(item -> toEntity(order, item)).toList());
+        orderCounters.orderCreated(order.getStatus(), totalAmount);
         return toDto(order);
     }
 
@@ -42,55 +63,75 @@ public class OrderServiceImpl implements OrderService {
         return toDto(order);
     }
 
+    // Null when there is no such order
     @Override
-    @Cacheable(value = "orders-by-user", key = "#userId")
-    public List<OrderDto> getByUserId(int userId) {
-        return orderRepository.findByUserId(userId)
-                .stream().map(this::toDto).toList();
+    public OrderDto findByOrderId(String orderId) {
+        return orderRepository.findByOrderId(orderId).map(this::toDto).orElse(null);
     }
 
+    // Only the first page of a user's orders is cached, deeper pages go straight to the index
     @Override
-    @Cacheable(value = "orders-all")
-    public List<OrderDto> getAll() {
-        return orderRepository.findAll()
-                .stream().map(this::toDto).toList();
+    @Cacheable(value = "orders-by-user", key = "#userId + ':' + #size", condition = "#cursor == null")
+    public OrderPageDto getPageByUserId(int userId, String cursor, int size) {
+        Pageable page = pageOf(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<Order> orders = after == null
+                ? orderRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page)
+                : orderRepository.findPageByUserIdAfter(userId, after.createdAt(), after.id(), page);
+        return toPage(orders, page.getPageSize());
     }
 
     @Override
+    public OrderPageDto getPage(String cursor, int size) {
+        Pageable page = pageOf(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<Order> orders = after == null
+                ? orderRepository.findAllByOrderByCreatedAtDescIdDesc(page)
+                : orderRepository.findPageAfter(after.createdAt(), after.id(), page);
+        return toPage(orders, page.getPageSize());
+    }
+
+    @Override
+    @Transactional
     @Caching(evict = {
             @CacheEvict(value = "orders", key = "#orderId"),
-            @CacheEvict(value = "orders-by-user", allEntries = true),
-            @CacheEvict(value = "orders-all", allEntries = true)
+            @CacheEvict(value = "orders-by-user", allEntries = true)
     })
     public OrderDto updateStatus(String orderId, String status) {
-        Order order = orderRepository.findByOrderId(orderId)
+        Order order = orderRepository.findByOrderIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        orderCounters.orderMoved(order.getStatus(), status, order.getTotalAmount());
         order.setStatus(status);
         orderRepository.save(order);
         return toDto(order);
     }
 
     @Override
+    @Transactional
     @Caching(evict = {
             @CacheEvict(value = "orders", key = "#orderId"),
-            @CacheEvict(value = "orders-by-user", allEntries = true),
-            @CacheEvict(value = "orders-all", allEntries = true)
+            @CacheEvict(value = "orders-by-user", allEntries = true)
     })
     public OrderDto cancelOrder(String orderId) {
-        Order order = orderRepository.findByOrderId(orderId)
+        Order order = orderRepository.findByOrderIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         if ("DELIVERED".equals(order.getStatus())) {
             throw new RuntimeException("Delivered orders cannot be cancelled");
         }
+        orderCounters.orderMoved(order.getStatus(), "CANCELLED", order.getTotalAmount());
         order.setStatus("CANCELLED");
         orderRepository.save(order);
         return toDto(order);
     }
 
     @Override
-    public List<OrderDto> getByStatus(String status) {
-        return orderRepository.findByStatus(status)
-                .stream().map(this::toDto).toList();
+    public OrderPageDto getPageByStatus(String status, String cursor, int size) {
+        Pageable page = pageOf(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<Order> orders = after == null
+                ? orderRepository.findByStatusOrderByCreatedAtDescIdDesc(status, page)
+                : orderRepository.findPageByStatusAfter(status, after.createdAt(), after.id(), page);
+        return toPage(orders, page.getPageSize());
     }
 
     @Override
@@ -98,6 +139,71 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.countByStatus(status);
     }
 
+    // Read from the running counters, no query against the orders table
+    @Override
+    public OrderStatsDto getStats() {
+        return orderCounters.snapshot();
+    }
+
+    @Override
+    public ProductSalesDto getProductSales(int productId, LocalDateTime since) {
+        List<ProductSalesTotals> totals = orderItemRepository.sumSalesOfProductSince(productId, since);
+        if (totals.isEmpty()) {
+            ProductSalesDto sales = new ProductSalesDto();
+            sales.setProductId(productId);
+            return sales;
+        }
+        return toDto(totals.get(0));
+    }
+
+    @Override
+    public List<ProductSalesDto> getBestSellers(LocalDateTime since, int limit) {
+        return orderItemRepository.findBestSellersSince(since, PageRequest.ofSize(Math.max(1, Math.min(limit, maxPageSize))))
+                .stream().map(this::toDto).toList();
+    }
+
+    // One row more than asked tells whether another page follows
+    private Pageable pageOf(int size) {
+        return PageRequest.ofSize(Math.max(1, Math.min(size, maxPageSize)) + 1);
+    }
+
+    private OrderPageDto toPage(List<Order> orders, int fetched) {
+        int size = fetched - 1;
+        OrderPageDto page = new OrderPageDto();
+        page.setOrders(orders.stream().limit(size).map(this::toDto).toList());
+        if (orders.size() > size) {
+            Order last = orders.get(size - 1);
+            page.setNextCursor(new OrderCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return page;
+    }
+
+    private String toJson(List<OrderItemDto> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize order items");
+        }
+    }
+
+    private OrderItem toEntity(Order order, OrderItemDto item) {
+        OrderItem entity = new OrderItem();
+        entity.setOrder(order);
+        entity.setProductId(item.getProductId());
+        entity.setProductName(item.getProductName());
+        entity.setQuantity(item.getQuantity());
+        entity.setUnitPrice(item.getPrice());
+        return entity;
+    }
+
+    private ProductSalesDto toDto(ProductSalesTotals totals) {
+        ProductSalesDto dto = new ProductSalesDto();
+        dto.setProductId(totals.getProductId());
+        dto.setQuantity(totals.getQuantity());
+        dto.setRevenue(totals.getRevenue());
+        return dto;
+    }
+
     private OrderDto toDto(Order entity) {
         OrderDto dto = new OrderDto();
         dto.setId(entity.getId());
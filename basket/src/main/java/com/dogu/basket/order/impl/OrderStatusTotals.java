@@ -0,0 +1,7 @@
+package com.dogu.basket.order.impl;
+
+public interface OrderStatusTotals {
+    String getStatus();
+    long getOrders();
+    double getRevenue();
+}
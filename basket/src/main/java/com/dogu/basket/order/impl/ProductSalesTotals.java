@@ -0,0 +1,7 @@
+package com.dogu.basket.order.impl;
+
+public interface ProductSalesTotals {
+    int getProductId();
+    long getQuantity();
+    double getRevenue();
+}
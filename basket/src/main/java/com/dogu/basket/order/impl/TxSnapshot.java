@@ -0,0 +1,31 @@
+package com.dogu.basket.order.impl;
+
+import java.util.Arrays;
+
+// A Postgres snapshot as returned by pg_current_snapshot(): "xmin:xmax:xip,xip,..."
+public class TxSnapshot implements java.io.Serializable {
+    private final long xmin;
+    private final long xmax;
+    private final long[] inProgress;
+
+    public TxSnapshot(long xmin, long xmax, long[] inProgress) {
+        this.xmin = xmin;
+        this.xmax = xmax;
+        this.inProgress = inProgress;
+    }
+
+    public static TxSnapshot parse(String value) {
+        String[] parts = value.split(":", -1);
+        long[] inProgress = parts[2].isEmpty() ? new long[0]
+                : Arrays.stream(parts[2].split(",")).mapToLong(Long::parseLong).sorted().toArray();
+        return new TxSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), inProgress);
+    }
+
+    // True when the transaction had committed for whoever read with this snapshot
+    public boolean isVisible(long txId) {
+        if (txId < xmin) {
+            return true;
+        }
+        return txId < xmax && Arrays.binarySearch(inProgress, txId) < 0;
+    }
+}
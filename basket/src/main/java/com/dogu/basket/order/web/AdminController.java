@@ -1,10 +1,13 @@
 package com.dogu.basket.order.web;
 
-import com.dogu.basket.order.api.OrderDto;
+import com.dogu.basket.order.api.OrderPageDto;
 import com.dogu.basket.order.api.OrderService;
+import com.dogu.basket.order.api.OrderStatsDto;
+import com.dogu.basket.order.api.ProductSalesDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,38 +21,64 @@ public class AdminController {
 
     @GetMapping("/stats")
     public Map<String, Object> getStats() {
-        List<OrderDto> allOrders = orderService.getAll();
-        double totalRevenue = allOrders.stream().mapToDouble(OrderDto::getTotalAmount).sum();
+        OrderStatsDto orderStats = orderService.getStats();
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalOrders", allOrders.size());
-        stats.put("pendingOrders", orderService.countByStatus("PENDING"));
-        stats.put("confirmedOrders", orderService.countByStatus("CONFIRMED"));
-        stats.put("shippedOrders", orderService.countByStatus("SHIPPED"));
-        stats.put("deliveredOrders", orderService.countByStatus("DELIVERED"));
-        stats.put("cancelledOrders", orderService.countByStatus("CANCELLED"));
-        stats.put("totalRevenue", totalRevenue);
+        stats.put("totalOrders", orderStats.getTotalOrders());
+        stats.put("pendingOrders", orderStats.countOf("PENDING"));
+        stats.put("confirmedOrders", orderStats.countOf("CONFIRMED"));
+        stats.put("shippedOrders", orderStats.countOf("SHIPPED"));
+        stats.put("deliveredOrders", orderStats.countOf("DELIVERED"));
+        stats.put("cancelledOrders", orderStats.countOf("CANCELLED"));
+        stats.put("totalRevenue", orderStats.getTotalRevenue());
+        stats.put("revenueByStatus", orderStats.getRevenueByStatus());
         return stats;
     }
 
+    @GetMapping("/products/{productId}/sales")
+    public ProductSalesResponse getProductSales(@PathVariable int productId, @RequestParam(defaultValue = "7") int days) {
+        return toResponse(orderService.getProductSales(productId, LocalDateTime.now().minusDays(days)));
+    }
+
+    @GetMapping("/products/best-sellers")
+    public List<ProductSalesResponse> getBestSellers(@RequestParam(defaultValue = "7") int days,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return orderService.getBestSellers(LocalDateTime.now().minusDays(days), limit)
+                .stream().map(this::toResponse).toList();
+    }
+
     @GetMapping("/orders")
-    public List<OrderResponse> getByStatus(@RequestParam(required = false) String status) {
-        List<OrderDto> orders;
+    public OrderPageResponse getByStatus(@RequestParam(required = false) String status,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
+        OrderPageDto page;
         if (status != null && !status.isEmpty()) {
-            orders = orderService.getByStatus(status);
+            page = orderService.getPageByStatus(status, cursor, size);
         } else {
-            orders = orderService.getAll();
+            page = orderService.getPage(cursor, size);
         }
-        return orders.stream().map(dto -> {
-            OrderResponse response = new OrderResponse();
-            response.id = dto.getId();
-            response.orderId = dto.getOrderId();
-            response.userId = dto.getUserId();
-            response.items = dto.getItems();
-            response.totalAmount = dto.getTotalAmount();
-            response.status = dto.getStatus();
-            response.createdAt = dto.getCreatedAt();
-            return response;
+
+        OrderPageResponse response = new OrderPageResponse();
+        response.nextCursor = page.getNextCursor();
+        response.orders = page.getOrders().stream().map(dto -> {
+            OrderResponse order = new OrderResponse();
+            order.id = dto.getId();
+            order.orderId = dto.getOrderId();
+            order.userId = dto.getUserId();
+            order.items = dto.getItems();
+            order.totalAmount = dto.getTotalAmount();
+            order.status = dto.getStatus();
+            order.createdAt = dto.getCreatedAt();
+            return order;
         }).toList();
+        return response;
+    }
+
+    private ProductSalesResponse toResponse(ProductSalesDto dto) {
+        ProductSalesResponse response = new ProductSalesResponse();
+        response.productId = dto.getProductId();
+        response.quantity = dto.getQuantity();
+        response.revenue = dto.getRevenue();
+        return response;
     }
 }
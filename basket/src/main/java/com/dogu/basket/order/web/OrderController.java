@@ -1,11 +1,13 @@
 package com.dogu.basket.order.web;
 
+import com.dogu.basket.basketitem.api.CheckoutJobDto;
+import com.dogu.basket.basketitem.api.CheckoutService;
 import com.dogu.basket.order.api.OrderDto;
+import com.dogu.basket.order.api.OrderPageDto;
 import com.dogu.basket.order.api.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,19 +17,46 @@ public class OrderController {
     @Autowired
     OrderService orderService;
 
+    @Autowired
+    CheckoutService checkoutService;
+
     @GetMapping("/{orderId}")
     public OrderResponse get(@PathVariable String orderId) {
         return toResponse(orderService.getByOrderId(orderId));
     }
 
     @GetMapping("/user/{userId}")
-    public List<OrderResponse> getByUserId(@PathVariable int userId) {
-        return orderService.getByUserId(userId).stream().map(this::toResponse).toList();
+    public OrderPageResponse getByUserId(@PathVariable int userId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return toPageResponse(orderService.getPageByUserId(userId, cursor, size));
     }
 
     @GetMapping
-    public List<OrderResponse> getAll() {
-        return orderService.getAll().stream().map(this::toResponse).toList();
+    public OrderPageResponse getAll(@RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "20") int size) {
+        return toPageResponse(orderService.getPage(cursor, size));
+    }
+
+    @GetMapping("/{orderId}/status")
+    public OrderStatusResponse getStatus(@PathVariable String orderId) {
+        OrderStatusResponse response = new OrderStatusResponse();
+        response.orderId = orderId;
+
+        CheckoutJobDto job = checkoutService.get(orderId);
+        if (job != null && !CheckoutJobDto.COMPLETED.equals(job.getStatus())) {
+            response.userId = job.getUserId();
+            response.status = job.getStatus();
+            response.message = job.getMessage();
+            return response;
+        }
+
+        // Once the order exists (or the job record has expired) the order itself is the source of truth
+        OrderDto order = orderService.getByOrderId(orderId);
+        response.userId = order.getUserId();
+        response.status = order.getStatus();
+        response.totalAmount = order.getTotalAmount();
+        return response;
     }
 
     @PutMapping("/{orderId}/status")
@@ -41,6 +70,13 @@ public class OrderController {
         return toResponse(orderService.cancelOrder(orderId));
     }
 
+    private OrderPageResponse toPageResponse(OrderPageDto page) {
+        OrderPageResponse response = new OrderPageResponse();
+        response.orders = page.getOrders().stream().map(this::toResponse).toList();
+        response.nextCursor = page.getNextCursor();
+        return response;
+    }
+
     private OrderResponse toResponse(OrderDto dto) {
         OrderResponse response = new OrderResponse();
         response.id = dto.getId();
@@ -0,0 +1,8 @@
+package com.dogu.basket.order.web;
+
+import java.util.List;
+
+public class OrderPageResponse {
+    public List<OrderResponse> orders;
+    public String nextCursor;
+}
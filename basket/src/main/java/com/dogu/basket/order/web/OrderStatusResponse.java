@@ -0,0 +1,9 @@
+package com.dogu.basket.order.web;
+
+public class OrderStatusResponse {
+    public String orderId;
+    public int userId;
+    public String status;
+    public String message;
+    public double totalAmount;
+}
@@ -0,0 +1,7 @@
+package com.dogu.basket.order.web;
+
+public class ProductSalesResponse {
+    public int productId;
+    public long quantity;
+    public double revenue;
+}
@@ -0,0 +1,44 @@
+package com.dogu.basket.security;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+public class UserPrincipal {
+
+    public static final String REQUEST_ATTRIBUTE = UserPrincipal.class.getName();
+
+    private final int userId;
+    private final String email;
+    private final String role;
+
+    public UserPrincipal(int userId, String email, String role) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+    }
+
+    // The caller of the current request, or null outside a request or for anonymous calls
+    public static UserPrincipal current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (UserPrincipal) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -0,0 +1,135 @@
+package com.dogu.basket.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+@Component
+public class UserPrincipalFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String USER_SIGNED_AT_HEADER = "X-User-Signed-At";
+    public static final String USER_SIGNATURE_HEADER = "X-User-Signature";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final JwtParser jwtParser;
+    private final SecretKeySpec identityKey;
+    private final long identityMaxAgeMs;
+
+    public UserPrincipalFilter(@Value("${jwt.secret:mySecretKeyForJwtTokenGenerationMustBeLongEnough123}") String secretKey,
+                               @Value("${gateway.identity.secret:myGatewayIdentitySecretSharedWithServices123}") String identitySecret,
+                               @Value("${gateway.identity.max-age-ms:60000}") long identityMaxAgeMs) {
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.identityKey = new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.identityMaxAgeMs = identityMaxAgeMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        UserPrincipal principal;
+        try {
+            principal = resolve(request);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + USER_ID_HEADER + " header");
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
+            return;
+        } catch (SecurityException e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+            return;
+        }
+
+        if (principal != null) {
+            request.setAttribute(UserPrincipal.REQUEST_ATTRIBUTE, principal);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private UserPrincipal resolve(HttpServletRequest request) {
+        // Claims already verified by the gateway, which signs the headers it sets
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId != null) {
+            String email = request.getHeader(USER_EMAIL_HEADER);
+            String role = request.getHeader(USER_ROLE_HEADER);
+            verifyGatewaySignature(request, userId, email, role);
+            return new UserPrincipal(Integer.parseInt(userId), email, role);
+        }
+
+        // Direct calls: verify the token here
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        Claims claims = jwtParser.parseSignedClaims(authorization.substring(BEARER_PREFIX.length())).getPayload();
+        Integer tokenUserId = claims.get("userId", Integer.class);
+        if (tokenUserId == null) {
+            throw new JwtException("Token has no userId");
+        }
+        return new UserPrincipal(tokenUserId,
+                claims.getSubject(),
+                claims.get("role", String.class));
+    }
+
+    // Identity headers sent straight to this service, or replayed long after the gateway signed them, are refused
+    private void verifyGatewaySignature(HttpServletRequest request, String userId, String email, String role) {
+        String signedAt = request.getHeader(USER_SIGNED_AT_HEADER);
+        String signature = request.getHeader(USER_SIGNATURE_HEADER);
+        if (signedAt == null || signature == null) {
+            throw new SecurityException("Identity headers are not signed by the gateway");
+        }
+
+        String expected = sign(String.join("\n", userId, nullToEmpty(email), nullToEmpty(role), signedAt));
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), signature.getBytes(StandardCharsets.UTF_8))) {
+            throw new SecurityException("Invalid identity signature");
+        }
+        long age;
+        try {
+            age = System.currentTimeMillis() - Long.parseLong(signedAt);
+        } catch (NumberFormatException e) {
+            throw new SecurityException("Invalid identity signature");
+        }
+        if (Math.abs(age) > identityMaxAgeMs) {
+            throw new SecurityException("Identity signature has expired");
+        }
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(identityKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot check identity signature", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -6,9 +6,18 @@ const api = axios.create({
   timeout: 10000,
 })
 
+// Send the login token so services can identify the caller
+api.interceptors.request.use((config) => {
+  const token = localStorage.getItem('token')
+  if (token) config.headers.Authorization = `Bearer ${token}`
+  return config
+})
+
 // Retry on connection refused
 api.interceptors.response.use(null, async (error) => {
   const config = error.config
+  // Expired or invalid login token: drop it so the next login starts clean
+  if (error.response?.status === 401) localStorage.removeItem('token')
   if (!config._retryCount) config._retryCount = 0
   if (config._retryCount < 2 && (!error.response || error.code === 'ECONNREFUSED' || error.code === 'ERR_NETWORK')) {
     config._retryCount++
@@ -55,13 +64,13 @@ export const basketApi = {
 
 // Orders
 export const orderApi = {
-  getAll: () => api.get('/basket/orders'),
+  getAll: (cursor) => api.get('/basket/orders', { params: { cursor } }),
   get: (orderId) => api.get(`/basket/orders/${orderId}`),
-  getByUser: (userId) => api.get(`/basket/orders/user/${userId}`),
+  getByUser: (userId, cursor) => api.get(`/basket/orders/user/${userId}`, { params: { cursor } }),
   updateStatus: (orderId, status) => api.put(`/basket/orders/${orderId}/status`, { status }),
   cancel: (orderId) => api.delete(`/basket/orders/${orderId}/cancel`),
   adminStats: () => api.get('/basket/admin/stats'),
-  adminOrders: (status) => api.get(`/basket/admin/orders${status ? '?status=' + status : ''}`),
+  adminOrders: (status, size) => api.get('/basket/admin/orders', { params: { status, size } }),
 }
 
 // Wishlist
@@ -1,10 +1,16 @@
 package com.dogu.gateway;
 
+import com.dogu.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.dogu.gateway.ratelimit.RateLimitProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 
 @EnableDiscoveryClient
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+@EnableConfigurationProperties(RateLimitProperties.class)
 @SpringBootApplication
 public class GatewayApplication {
 
@@ -0,0 +1,81 @@
+package com.dogu.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ResponseCache {
+
+    @Value("${gateway.response-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${gateway.response-cache.max-entries:1000}")
+    private int maxEntries;
+
+    // Least recently used responses go first once max-entries is reached, each one lives at most ttl-ms
+    private Cache<String, CachedResponse> entries;
+
+    // Every invalidation takes the next number; a fill remembers the number current when it started
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Path -> number of its last invalidation, so one product's change only drops fills of that path.
+    // Forgotten paths raise the floor instead, which at worst drops a fill that would have been fine.
+    private Cache<String, Long> invalidations;
+    private final AtomicLong invalidationFloor = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .build();
+        invalidations = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .<String, Long>evictionListener((path, invalidatedAt, cause) ->
+                        invalidationFloor.accumulateAndGet(invalidatedAt, Math::max))
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public long version() {
+        return sequence.get();
+    }
+
+    public void put(String key, byte[] body, MediaType contentType, String etag, long fetchedAtVersion) {
+        entries.put(key, new CachedResponse(body, contentType, etag));
+        // Lost a race with an invalidation of this path: drop what was just stored
+        if (lastInvalidation(path(key)) > fetchedAtVersion) {
+            entries.invalidate(key);
+        }
+    }
+
+    // Removes the path itself and every query-string variant of it
+    public void invalidate(String path) {
+        invalidations.put(path, sequence.incrementAndGet());
+        entries.asMap().keySet().removeIf(key -> key.equals(path) || key.startsWith(path + "?"));
+    }
+
+    private long lastInvalidation(String path) {
+        Long invalidatedAt = invalidations.getIfPresent(path);
+        return invalidatedAt != null ? invalidatedAt : invalidationFloor.get();
+    }
+
+    private static String path(String key) {
+        int query = key.indexOf('?');
+        return query < 0 ? key : key.substring(0, query);
+    }
+
+    public record CachedResponse(byte[] body, MediaType contentType, String etag) {
+    }
+}
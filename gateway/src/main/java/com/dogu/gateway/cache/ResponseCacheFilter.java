@@ -0,0 +1,99 @@
+package com.dogu.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_HEADER = "X-Cache";
+
+    @Autowired
+    ResponseCache responseCache;
+
+    @Value("${gateway.response-cache.paths:}")
+    private List<String> cachedPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || !isCached(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        String key = request.getURI().getRawQuery() == null
+                ? request.getPath().value()
+                : request.getPath().value() + "?" + request.getURI().getRawQuery();
+        ServerHttpResponse response = exchange.getResponse();
+
+        ResponseCache.CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            response.getHeaders().setETag(cached.etag());
+            response.getHeaders().set(CACHE_HEADER, "HIT");
+            if (request.getHeaders().getIfNoneMatch().contains(cached.etag())) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+            response.getHeaders().setContentType(cached.contentType());
+            response.getHeaders().setContentLength(cached.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+        }
+
+        long version = responseCache.version();
+        ServerHttpResponseDecorator recording = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    String etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                    getHeaders().setETag(etag);
+                    getHeaders().set(CACHE_HEADER, "MISS");
+                    responseCache.put(key, bytes, getHeaders().getContentType(), etag, version);
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(recording).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // After token verification, before the routing filters
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    private boolean isCached(String path) {
+        for (String pattern : cachedPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
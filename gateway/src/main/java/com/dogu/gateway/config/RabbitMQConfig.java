@@ -0,0 +1,40 @@
+package com.dogu.gateway.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String PRODUCT_EXCHANGE = "product.exchange";
+    public static final String PRODUCT_CHANGED_ROUTING_KEY = "product.changed";
+
+    @Bean
+    public TopicExchange productExchange() {
+        return new TopicExchange(PRODUCT_EXCHANGE);
+    }
+
+    // One auto-deleted queue per gateway instance, so every instance drops its own cached copies
+    @Bean
+    public Queue productChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding productChangedBinding(Queue productChangedQueue, TopicExchange productExchange) {
+        return BindingBuilder.bind(productChangedQueue)
+                .to(productExchange)
+                .with(PRODUCT_CHANGED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
@@ -0,0 +1,18 @@
+package com.dogu.gateway.events;
+
+import java.util.List;
+
+public class ProductChangedEvent {
+    private List<Integer> productIds;
+
+    public ProductChangedEvent() {
+    }
+
+    public List<Integer> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<Integer> productIds) {
+        this.productIds = productIds;
+    }
+}
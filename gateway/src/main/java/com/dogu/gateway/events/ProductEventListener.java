@@ -0,0 +1,32 @@
+package com.dogu.gateway.events;
+
+import com.dogu.gateway.cache.ResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventListener.class);
+
+    private static final String PRODUCTS_PATH = "/stock/products";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @RabbitListener(queues = "#{productChangedQueue.name}")
+    public void handleProductChanged(ProductChangedEvent event) {
+        if (event.getProductIds() == null) {
+            return;
+        }
+        logger.debug("Invalidating cached catalog responses for products {}", event.getProductIds());
+
+        for (Integer productId : event.getProductIds()) {
+            responseCache.invalidate(PRODUCTS_PATH + "/" + productId);
+        }
+        responseCache.invalidate(PRODUCTS_PATH);
+    }
+}
@@ -0,0 +1,177 @@
+package com.dogu.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String USER_SIGNED_AT_HEADER = "X-User-Signed-At";
+    public static final String USER_SIGNATURE_HEADER = "X-User-Signature";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtParser jwtParser;
+    private final SecretKeySpec identityKey;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // Full token -> verified claims. Each entry expires together with its token's exp claim, and the
+    // least recently used tokens make room once cache-max-entries is reached.
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtAuthenticationFilter(
+            @Value("${jwt.secret:mySecretKeyForJwtTokenGenerationMustBeLongEnough123}") String secretKey,
+            @Value("${gateway.identity.secret:myGatewayIdentitySecretSharedWithServices123}") String identitySecret,
+            @Value("${gateway.jwt.public-paths:}") List<String> publicPaths,
+            @Value("${gateway.jwt.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.identityKey = new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.publicPaths = publicPaths;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, verified.expiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, verified, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        VerifiedToken caller = null;
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX) && !isPublic(request.getPath().value())) {
+            caller = verify(authorization.substring(BEARER_PREFIX.length()));
+            if (caller == null) {
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            }
+        }
+
+        VerifiedToken identity = caller;
+        ServerHttpRequest forwarded = request.mutate().headers(headers -> {
+            // Identity headers only ever come from this filter, never from the client
+            headers.remove(USER_ID_HEADER);
+            headers.remove(USER_EMAIL_HEADER);
+            headers.remove(USER_ROLE_HEADER);
+            headers.remove(USER_SIGNED_AT_HEADER);
+            headers.remove(USER_SIGNATURE_HEADER);
+            if (identity != null) {
+                headers.set(USER_ID_HEADER, String.valueOf(identity.userId()));
+                if (identity.email() != null) {
+                    headers.set(USER_EMAIL_HEADER, identity.email());
+                }
+                if (identity.role() != null) {
+                    headers.set(USER_ROLE_HEADER, identity.role());
+                }
+                // Services only trust the headers above when this signature over them checks out
+                String signedAt = String.valueOf(System.currentTimeMillis());
+                headers.set(USER_SIGNED_AT_HEADER, signedAt);
+                headers.set(USER_SIGNATURE_HEADER, sign(String.join("\n", String.valueOf(identity.userId()),
+                        nullToEmpty(identity.email()), nullToEmpty(identity.role()), signedAt)));
+            }
+        }).build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Integer userId = claims.get("userId", Integer.class);
+        if (userId == null || claims.getExpiration() == null) {
+            return null;
+        }
+
+        VerifiedToken verified = new VerifiedToken(userId, claims.getSubject(),
+                claims.get("role", String.class), claims.getExpiration().getTime());
+        verifiedTokens.put(token, verified);
+        return verified;
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(identityKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign identity headers", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record VerifiedToken(int userId, String email, String role, long expiresAt) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.dogu.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class InstanceStats {
+
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    private double latencyEwmaNanos;
+    private int consecutiveErrors;
+    private volatile long backoffUntilNanos;
+
+    synchronized void recordSuccess(long latencyNanos, double alpha) {
+        if (latencyNanos > 0) {
+            latencyEwmaNanos = latencyEwmaNanos == 0 ? latencyNanos : alpha * latencyNanos + (1 - alpha) * latencyEwmaNanos;
+        }
+        consecutiveErrors = 0;
+        backoffUntilNanos = 0;
+    }
+
+    synchronized void recordError(long baseBackoffNanos, long maxBackoffNanos) {
+        consecutiveErrors++;
+        long backoff = baseBackoffNanos << Math.min(consecutiveErrors - 1, 16);
+        backoffUntilNanos = System.nanoTime() + Math.min(backoff, maxBackoffNanos);
+    }
+
+    synchronized double latencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    boolean isBackedOff(long now) {
+        return backoffUntilNanos - now > 0;
+    }
+
+    // Lower is better; every request already in flight counts as one more expected response time
+    double score() {
+        return latencyEwmaNanos() * (inFlight.get() + 1);
+    }
+}
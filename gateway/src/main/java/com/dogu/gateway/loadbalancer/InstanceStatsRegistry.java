@@ -0,0 +1,105 @@
+package com.dogu.gateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class InstanceStatsRegistry {
+
+    @Value("${gateway.load-balancer.ewma-alpha:0.3}")
+    private double ewmaAlpha;
+
+    @Value("${gateway.load-balancer.error-backoff-ms:1000}")
+    private long errorBackoffMs;
+
+    @Value("${gateway.load-balancer.max-error-backoff-ms:30000}")
+    private long maxErrorBackoffMs;
+
+    // serviceId -> host:port -> stats
+    private final Map<String, Map<String, InstanceStats>> stats = new ConcurrentHashMap<>();
+
+    public ServiceInstance choose(List<ServiceInstance> instances) {
+        prune(instances);
+        long now = System.nanoTime();
+        ServiceInstance best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (ServiceInstance instance : instances) {
+            InstanceStats instanceStats = stats(instance);
+            if (instanceStats.isBackedOff(now)) {
+                continue;
+            }
+            double score = instanceStats.score();
+            if (score < bestScore) {
+                best = instance;
+                bestScore = score;
+            }
+        }
+
+        // Every instance is backing off: still route somewhere rather than fail outright
+        if (best == null) {
+            best = instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+        }
+        return best;
+    }
+
+    public void started(ServiceInstance instance) {
+        stats(instance).inFlight.incrementAndGet();
+    }
+
+    public void succeeded(ServiceInstance instance, long latencyNanos) {
+        InstanceStats instanceStats = existingStats(instance);
+        if (instanceStats == null) {
+            return;
+        }
+        instanceStats.inFlight.decrementAndGet();
+        instanceStats.recordSuccess(latencyNanos, ewmaAlpha);
+    }
+
+    public void failed(ServiceInstance instance) {
+        InstanceStats instanceStats = existingStats(instance);
+        if (instanceStats == null) {
+            return;
+        }
+        instanceStats.inFlight.decrementAndGet();
+        instanceStats.recordError(TimeUnit.MILLISECONDS.toNanos(errorBackoffMs),
+                TimeUnit.MILLISECONDS.toNanos(maxErrorBackoffMs));
+    }
+
+    // Instances that left discovery would otherwise keep their stats forever. Stats only outnumber the
+    // current list after an instance went away, so the usual call is a size check and nothing more.
+    private void prune(List<ServiceInstance> instances) {
+        Map<String, InstanceStats> serviceStats = stats.get(instances.get(0).getServiceId());
+        if (serviceStats == null || serviceStats.size() <= instances.size()) {
+            return;
+        }
+        Set<String> live = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            live.add(key(instance));
+        }
+        serviceStats.keySet().retainAll(live);
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getServiceId(), serviceId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(instance), key -> new InstanceStats());
+    }
+
+    // Null once the instance was pruned; a call still running against it then has nothing to report to
+    private InstanceStats existingStats(ServiceInstance instance) {
+        Map<String, InstanceStats> serviceStats = stats.get(instance.getServiceId());
+        return serviceStats == null ? null : serviceStats.get(key(instance));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,83 @@
+package com.dogu.gateway.ratelimit;
+
+import com.dogu.gateway.filter.JwtAuthenticationFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final List<RateLimitProperties.Route> routes;
+    private final List<TokenBuckets> buckets = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.routes = properties.getRoutes();
+        for (RateLimitProperties.Route route : routes) {
+            buckets.add(new TokenBuckets(route.getCapacity(), route.getRefillPerSecond(),
+                    properties.getMaxClientsPerRoute()));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        int route = matchRoute(request);
+        if (route < 0) {
+            return chain.filter(exchange);
+        }
+
+        long waitNanos = buckets.get(route).tryAcquire(clientKey(request));
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        // After token verification so the user id header is trusted, before the response cache
+        return Ordered.HIGHEST_PRECEDENCE + 15;
+    }
+
+    // First matching route wins
+    private int matchRoute(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Route route = routes.get(i);
+            if ((route.getMethod() == null || route.getMethod().equalsIgnoreCase(request.getMethod().name()))
+                    && pathMatcher.match(route.getPath(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Verified user id when the caller is logged in, otherwise the client address
+    private static String clientKey(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return "ip:" + (remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : "unknown");
+    }
+}
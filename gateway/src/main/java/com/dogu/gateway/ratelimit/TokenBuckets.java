@@ -0,0 +1,52 @@
+package com.dogu.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets for one route, one per client. Each bucket is a single AtomicLong holding the
+// time at which it will be full again (GCRA), so taking a token is one CAS and never blocks.
+class TokenBuckets {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    TokenBuckets(int capacity, double refillPerSecond, int maxClients) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity must be greater than 0, was " + capacity);
+        }
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate limit refill-per-second must be greater than 0, was " + refillPerSecond);
+        }
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        // A bucket is never more than burstNanos from full, so one left alone that long has refilled
+        // and is the same as no bucket at all. Caffeine expires and evicts in its own maintenance,
+        // amortised off the request path, and maximumSize bounds memory under many distinct clients.
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(burstNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    // 0 when a token was taken, otherwise the nanoseconds until one is available
+    long tryAcquire(String client) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(now));
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+}
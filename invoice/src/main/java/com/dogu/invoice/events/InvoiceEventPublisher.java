@@ -15,7 +15,12 @@ public class InvoiceEventPublisher {
         rabbitTemplate.convertAndSend(
                 RabbitMQConfig.INVOICE_EXCHANGE,
                 RabbitMQConfig.INVOICE_CREATED_ROUTING_KEY,
-                event
+                event,
+                message -> {
+                    // One id per invoice, so consumers can drop a republished event
+                    message.getMessageProperties().setMessageId("invoice-" + event.getInvoiceId());
+                    return message;
+                }
         );
     }
 }
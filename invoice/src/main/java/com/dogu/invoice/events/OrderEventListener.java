@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -29,6 +30,12 @@ public class OrderEventListener {
         logger.info("Received order.created event: orderId={}, userId={}",
                 event.getOrderId(), event.getUserId());
 
+        // order.created is delivered at least once; a redelivery must not bill the order twice
+        if (invoiceService.existsForOrder(event.getOrderId())) {
+            logger.info("Invoice for order {} already exists, skipping redelivered event", event.getOrderId());
+            return;
+        }
+
         try {
             String itemsJson = objectMapper.writeValueAsString(event.getItems());
             InvoiceDto invoice = invoiceService.createFromOrder(
@@ -52,6 +59,9 @@ public class OrderEventListener {
             );
 
             logger.info("Invoice created: id={}", invoice.getId());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same event created it first
+            logger.info("Invoice for order {} already exists, skipping redelivered event", event.getOrderId());
         } catch (Exception e) {
             logger.error("Error creating invoice: {}", e.getMessage());
         }
@@ -6,6 +6,7 @@ public interface InvoiceService {
     InvoiceDto createFromOrder(String orderId, int userId, String itemsJson, double totalAmount);
     InvoiceDto get(int id);
     InvoiceDto getByOrderId(String orderId);
+    boolean existsForOrder(String orderId);
     List<InvoiceDto> getByUserId(int userId);
     List<InvoiceDto> getAll();
 }
@@ -11,6 +11,8 @@ public class Invoice {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private int id;
 
+    // One invoice per order, also when order.created is delivered twice at the same time
+    @Column(unique = true)
     private String orderId;
     private int userId;
 
@@ -9,5 +9,6 @@ import java.util.Optional;
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Integer> {
     Optional<Invoice> findByOrderId(String orderId);
+    boolean existsByOrderId(String orderId);
     List<Invoice> findByUserId(int userId);
 }
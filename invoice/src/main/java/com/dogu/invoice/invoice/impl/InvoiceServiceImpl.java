@@ -52,6 +52,11 @@ public class InvoiceServiceImpl implements InvoiceService {
         return toDto(invoice);
     }
 
+    @Override
+    public boolean existsForOrder(String orderId) {
+        return invoiceRepository.existsByOrderId(orderId);
+    }
+
     @Override
     @Cacheable(value = "invoices-by-user", key = "#userId")
     public List<InvoiceDto> getByUserId(int userId) {
@@ -9,7 +9,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -29,8 +31,16 @@ public class NotificationEventListener {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProcessedMessages processedMessages;
+
     @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_USER_QUEUE)
-    public void handleUserRegistered(UserRegisteredEvent event) {
+    public void handleUserRegistered(UserRegisteredEvent event,
+                                     @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        processedMessages.handleOnce(messageId, () -> sendWelcome(event));
+    }
+
+    private void sendWelcome(UserRegisteredEvent event) {
         logger.info("NOTIFICATION: New User Registered! userId={}, email={}", event.getUserId(), event.getEmail());
 
         String html = templateService.buildWelcomeEmail(event.getName());
@@ -38,7 +48,12 @@ public class NotificationEventListener {
     }
 
     @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_ORDER_QUEUE)
-    public void handleOrderCreated(OrderCreatedEvent event) {
+    public void handleOrderCreated(OrderCreatedEvent event,
+                                   @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        processedMessages.handleOnce(messageId, () -> sendOrderConfirmation(event));
+    }
+
+    private void sendOrderConfirmation(OrderCreatedEvent event) {
         logger.info("NOTIFICATION: New Order Created! orderId={}, userId={}, email={}", event.getOrderId(), event.getUserId(), event.getEmail());
 
         if (event.getEmail() == null) {
@@ -58,7 +73,12 @@ public class NotificationEventListener {
     }
 
     @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_INVOICE_QUEUE)
-    public void handleInvoiceCreated(InvoiceCreatedEvent event) {
+    public void handleInvoiceCreated(InvoiceCreatedEvent event,
+                                     @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        processedMessages.handleOnce(messageId, () -> sendInvoice(event));
+    }
+
+    private void sendInvoice(InvoiceCreatedEvent event) {
         logger.info("NOTIFICATION: Invoice Created! invoiceSlug={}, email={}", event.getInvoiceSlug(), event.getEmail());
 
         if (event.getEmail() == null) {
@@ -0,0 +1,46 @@
+package com.dogu.notification.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Publishers deliver at least once, so a redelivered event must not send its email again.
+// Remembers the most recent message ids of this instance; the oldest are forgotten first.
+@Component
+public class ProcessedMessages {
+
+    private final Map<String, Boolean> seen;
+
+    public ProcessedMessages(@Value("${notification.dedupe.capacity:10000}") int capacity) {
+        this.seen = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Runs the handler unless the message was already handled; a failed handler frees the id
+    // so the broker's redelivery is processed again
+    public void handleOnce(String messageId, Runnable handler) {
+        if (messageId != null) {
+            synchronized (seen) {
+                if (seen.putIfAbsent(messageId, Boolean.TRUE) != null) {
+                    return;
+                }
+            }
+        }
+        try {
+            handler.run();
+        } catch (RuntimeException e) {
+            if (messageId != null) {
+                synchronized (seen) {
+                    seen.remove(messageId);
+                }
+            }
+            throw e;
+        }
+    }
+}
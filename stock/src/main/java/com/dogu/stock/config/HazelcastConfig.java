@@ -31,6 +31,12 @@ public class HazelcastConfig {
         lowStockConfig.setTimeToLiveSeconds(300);
         config.addMapConfig(lowStockConfig);
 
+        // hot-inventory - flash sale ürünlerinin canlı stok sayaçları ve henüz DB'ye yazılmamış miktarları
+        // (aynı kayıtta tutulur, TTL yok, DB'ye arka planda yazılır, member düşerse backup'tan devam eder)
+        MapConfig hotInventoryConfig = new MapConfig("hot-inventory");
+        hotInventoryConfig.setBackupCount(1);
+        config.addMapConfig(hotInventoryConfig);
+
         return config;
     }
 }
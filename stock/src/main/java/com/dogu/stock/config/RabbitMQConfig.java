@@ -0,0 +1,58 @@
+package com.dogu.stock.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String PRODUCT_EXCHANGE = "product.exchange";
+    public static final String PRODUCT_CHANGED_ROUTING_KEY = "product.changed";
+
+    // Order exchange - listening for the sales report
+    public static final String ORDER_EXCHANGE = "order.exchange";
+    public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
+
+    @Bean
+    public TopicExchange productExchange() {
+        return new TopicExchange(PRODUCT_EXCHANGE);
+    }
+
+    @Bean
+    public TopicExchange orderExchange() {
+        return new TopicExchange(ORDER_EXCHANGE);
+    }
+
+    // One auto-deleted queue per stock instance, every instance keeps its own full report
+    @Bean
+    public Queue orderCreatedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderCreatedBinding(Queue orderCreatedQueue, TopicExchange orderExchange) {
+        return BindingBuilder.bind(orderCreatedQueue)
+                .to(orderExchange)
+                .with(ORDER_CREATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter());
+        return template;
+    }
+}
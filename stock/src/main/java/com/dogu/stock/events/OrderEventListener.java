@@ -0,0 +1,32 @@
+package com.dogu.stock.events;
+
+import com.dogu.stock.sales.api.SalesReportService;
+import com.dogu.stock.sales.api.SoldItemDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventListener.class);
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @RabbitListener(queues = "#{orderCreatedQueue.name}")
+    public void handleOrderCreated(OrderCreatedEvent event) {
+        if (event.getItems() == null) {
+            return;
+        }
+        try {
+            salesReportService.recordOrder(event.getOrderId(), event.getTimestamp(), event.getItems().stream()
+                    .map(item -> new SoldItemDto(item.getProductId(), item.getProductName(), item.getQuantity(), item.getPrice()))
+                    .toList());
+        } catch (Exception e) {
+            logger.error("Error recording sales of order {}: {}", event.getOrderId(), e.getMessage());
+        }
+    }
+}
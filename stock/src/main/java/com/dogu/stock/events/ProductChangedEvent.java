@@ -0,0 +1,33 @@
+package com.dogu.stock.events;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ProductChangedEvent {
+    private List<Integer> productIds;
+    private LocalDateTime timestamp;
+
+    public ProductChangedEvent() {
+    }
+
+    public ProductChangedEvent(List<Integer> productIds) {
+        this.productIds = productIds;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public List<Integer> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<Integer> productIds) {
+        this.productIds = productIds;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
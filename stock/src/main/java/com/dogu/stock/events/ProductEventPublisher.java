@@ -0,0 +1,72 @@
+package com.dogu.stock.events;
+
+import com.dogu.stock.config.RabbitMQConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ProductEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventPublisher.class);
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    // Changed ids are collected and sent as one event per flush, so a flash sale does not
+    // turn every decrement into its own message
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+
+    public void productChanged(int productId) {
+        productsChanged(List.of(productId));
+    }
+
+    public void productsChanged(Collection<Integer> productIds) {
+        // Only announce committed changes, otherwise a reader could cache the old row again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.addAll(productIds);
+                }
+            });
+        } else {
+            changed.addAll(productIds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stock.product-events.flush-interval-ms:100}")
+    public void flush() {
+        List<Integer> productIds = new ArrayList<>();
+        for (Iterator<Integer> it = changed.iterator(); it.hasNext(); ) {
+            productIds.add(it.next());
+            it.remove();
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.PRODUCT_EXCHANGE,
+                    RabbitMQConfig.PRODUCT_CHANGED_ROUTING_KEY,
+                    new ProductChangedEvent(productIds)
+            );
+        } catch (RuntimeException e) {
+            changed.addAll(productIds);
+            logger.warn("Product changed event for {} products not sent, will retry: {}", productIds.size(), e.getMessage());
+        }
+    }
+}
@@ -6,6 +6,7 @@ public class ProductDto implements java.io.Serializable {
     private String description;
     private double price;
     private int quantity;
+    private boolean hot;
 
     public ProductDto() {
     }
@@ -57,4 +58,12 @@ public class ProductDto implements java.io.Serializable {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    public boolean isHot() {
+        return hot;
+    }
+
+    public void setHot(boolean hot) {
+        this.hot = hot;
+    }
 }
@@ -6,8 +6,13 @@ public interface ProductService {
     public ProductDto save(ProductDto param);
     public ProductDto get(int id);
     public List<ProductDto> getAll();
+    public List<ProductDto> getByIds(List<Integer> ids);
     public ProductDto update(ProductDto info);
     public void delete(int id);
     public ProductDto reduceStock(int id, int quantity);
+    public StockReservationDto reserveStock(String orderId, List<StockReservationLineDto> lines);
+    public void releaseStock(String orderId);
     public List<ProductDto> getLowStock(int threshold);
+    public ProductDto promoteToHot(int id);
+    public ProductDto demoteFromHot(int id);
 }
@@ -0,0 +1,32 @@
+package com.dogu.stock.product.api;
+
+import java.util.List;
+
+public class StockReservationDto implements java.io.Serializable {
+    private boolean reserved;
+    private List<StockReservationLineDto> lines;
+
+    public StockReservationDto() {
+    }
+
+    public StockReservationDto(boolean reserved, List<StockReservationLineDto> lines) {
+        this.reserved = reserved;
+        this.lines = lines;
+    }
+
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    public void setReserved(boolean reserved) {
+        this.reserved = reserved;
+    }
+
+    public List<StockReservationLineDto> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<StockReservationLineDto> lines) {
+        this.lines = lines;
+    }
+}
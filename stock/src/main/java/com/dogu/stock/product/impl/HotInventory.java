@@ -0,0 +1,157 @@
+package com.dogu.stock.product.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class HotInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotInventory.class);
+
+    public static final String HOT_INVENTORY_MAP = "hot-inventory";
+
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    // Deltas whose flush failed after their product left hot inventory; written by this member's next flush
+    private final Map<Integer, Integer> unflushed = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Product product : productRepository.findByHotTrue()) {
+            counters().putIfAbsent(product.getId(), new HotStock(product.getQuantity(), 0));
+        }
+    }
+
+    public int decrement(int productId, int quantity) {
+        return counters().executeOnKey(productId, new HotStockAdjustProcessor(-quantity));
+    }
+
+    // False when the product is not (or no longer) hot, the caller then gives the quantity back to the table
+    public boolean restore(int productId, int quantity) {
+        return counters().executeOnKey(productId, new HotStockAdjustProcessor(quantity)) >= 0;
+    }
+
+    public boolean setQuantity(int productId, int quantity) {
+        return counters().executeOnKey(productId, new HotStockSetProcessor(quantity)) != HotStockAdjustProcessor.NOT_HOT;
+    }
+
+    public Integer getQuantity(int productId) {
+        HotStock stock = counters().get(productId);
+        return stock == null ? null : stock.getQuantity();
+    }
+
+    public Map<Integer, Integer> getQuantities(Set<Integer> productIds) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        counters().getAll(productIds).forEach((productId, stock) -> quantities.put(productId, stock.getQuantity()));
+        return quantities;
+    }
+
+    public void promote(int productId, int quantity) {
+        counters().putIfAbsent(productId, new HotStock(quantity, 0));
+    }
+
+    // Removes the counter and writes what it still owes the table; if that write fails the counter is
+    // put back as it was and the product stays hot
+    public void demote(int productId) {
+        HotStock removed = counters().executeOnKey(productId, new HotStockRemoveProcessor());
+        if (removed == null || removed.getPending() == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE products SET quantity = quantity - ? WHERE id = ?", removed.getPending(), productId));
+        } catch (RuntimeException e) {
+            counters().putIfAbsent(productId, removed);
+            throw e;
+        }
+    }
+
+    public void discard(int productId) {
+        counters().delete(productId);
+        unflushed.remove(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${stock.hot-inventory.flush-interval-ms:500}")
+    public void flush() {
+        // Every member flushes; taking a delta clears it, so each one is written exactly once
+        Map<Integer, Integer> deltas = new HashMap<>(counters().executeOnEntries(new HotPendingTakeProcessor()));
+        for (Integer productId : unflushed.keySet()) {
+            Integer delta = unflushed.remove(productId);
+            if (delta != null) {
+                deltas.merge(productId, delta, Integer::sum);
+            }
+        }
+        List<Object[]> batch = new ArrayList<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta != null && delta != 0) {
+                batch.add(new Object[]{delta, productId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE products SET quantity = quantity - ? WHERE id = ?", batch));
+        } catch (RuntimeException e) {
+            // Keep the deltas so the next run retries them
+            for (Object[] row : batch) {
+                Integer productId = (Integer) row[1];
+                Integer delta = (Integer) row[0];
+                if (!counters().executeOnKey(productId, new HotPendingAddProcessor(delta))) {
+                    unflushed.merge(productId, delta, Integer::sum);
+                }
+            }
+            logger.error("Hot inventory flush failed for {} products: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void reconcile() {
+        flush();
+
+        // The last member holds the only copy of the counters; make the table match them exactly
+        if (hazelcastInstance.getCluster().getMembers().size() > 1) {
+            return;
+        }
+        for (Product product : productRepository.findByHotTrue()) {
+            Integer live = getQuantity(product.getId());
+            if (live != null && live != product.getQuantity()) {
+                logger.warn("Hot inventory mismatch for product {}: table={}, counter={}",
+                        product.getId(), product.getQuantity(), live);
+                jdbcTemplate.update("UPDATE products SET quantity = ? WHERE id = ?", live, product.getId());
+            }
+        }
+    }
+
+    private IMap<Integer, HotStock> counters() {
+        return hazelcastInstance.getMap(HOT_INVENTORY_MAP);
+    }
+}
@@ -0,0 +1,25 @@
+package com.dogu.stock.product.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.Map;
+
+// Puts back a delta whose flush failed; false when the product has left hot inventory meanwhile
+public class HotPendingAddProcessor implements EntryProcessor<Integer, HotStock, Boolean> {
+
+    private final int delta;
+
+    public HotPendingAddProcessor(int delta) {
+        this.delta = delta;
+    }
+
+    @Override
+    public Boolean process(Map.Entry<Integer, HotStock> entry) {
+        HotStock stock = entry.getValue();
+        if (stock == null) {
+            return false;
+        }
+        entry.setValue(new HotStock(stock.getQuantity(), stock.getPending() + delta));
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.dogu.stock.product.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.Map;
+
+// Hands the whole pending delta to one flushing member and clears it in the same step
+public class HotPendingTakeProcessor implements EntryProcessor<Integer, HotStock, Integer> {
+
+    @Override
+    public Integer process(Map.Entry<Integer, HotStock> entry) {
+        HotStock stock = entry.getValue();
+        if (stock == null || stock.getPending() == 0) {
+            return 0;
+        }
+        entry.setValue(new HotStock(stock.getQuantity(), 0));
+        return stock.getPending();
+    }
+}
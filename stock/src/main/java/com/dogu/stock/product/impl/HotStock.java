@@ -0,0 +1,21 @@
+package com.dogu.stock.product.impl;
+
+import java.io.Serializable;
+
+// Live counter of a hot product together with the quantity taken from it but not written to the
+// products table yet. Both live in one entry so every change moves them in a single step, and
+// products.quantity minus pending always equals quantity.
+public class HotStock implements Serializable {
+
+    private final int quantity;
+    private final int pending;
+
+    public HotStock(int quantity, int pending) {
+        this.quantity = quantity;
+        this.pending = pending;
+    }
+
+    public int getQuantity() { return quantity; }
+
+    public int getPending() { return pending; }
+}
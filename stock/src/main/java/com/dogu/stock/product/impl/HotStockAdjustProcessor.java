@@ -0,0 +1,32 @@
+package com.dogu.stock.product.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.Map;
+
+public class HotStockAdjustProcessor implements EntryProcessor<Integer, HotStock, Integer> {
+
+    public static final int NOT_HOT = -1;
+    public static final int INSUFFICIENT = -2;
+
+    private final int delta;
+
+    public HotStockAdjustProcessor(int delta) {
+        this.delta = delta;
+    }
+
+    @Override
+    public Integer process(Map.Entry<Integer, HotStock> entry) {
+        HotStock stock = entry.getValue();
+        if (stock == null) {
+            return NOT_HOT;
+        }
+        int quantity = stock.getQuantity() + delta;
+        if (quantity < 0) {
+            return INSUFFICIENT;
+        }
+        // Stock taken from the counter is owed to the table, stock given back cancels it
+        entry.setValue(new HotStock(quantity, stock.getPending() - delta));
+        return quantity;
+    }
+}
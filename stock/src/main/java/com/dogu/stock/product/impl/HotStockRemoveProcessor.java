@@ -0,0 +1,19 @@
+package com.dogu.stock.product.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.Map;
+
+// Takes a product out of hot inventory and returns its last state, so no decrement can land
+// between reading the pending delta and removing the counter
+public class HotStockRemoveProcessor implements EntryProcessor<Integer, HotStock, HotStock> {
+
+    @Override
+    public HotStock process(Map.Entry<Integer, HotStock> entry) {
+        HotStock stock = entry.getValue();
+        if (stock != null) {
+            entry.setValue(null);
+        }
+        return stock;
+    }
+}
@@ -0,0 +1,24 @@
+package com.dogu.stock.product.impl;
+
+import com.hazelcast.map.EntryProcessor;
+
+import java.util.Map;
+
+public class HotStockSetProcessor implements EntryProcessor<Integer, HotStock, Integer> {
+
+    private final int quantity;
+
+    public HotStockSetProcessor(int quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public Integer process(Map.Entry<Integer, HotStock> entry) {
+        HotStock stock = entry.getValue();
+        if (stock == null) {
+            return HotStockAdjustProcessor.NOT_HOT;
+        }
+        entry.setValue(new HotStock(quantity, stock.getPending() + stock.getQuantity() - quantity));
+        return stock.getQuantity();
+    }
+}
@@ -14,6 +14,9 @@ public class Product {
     private double price;
     private int quantity;
 
+    @Column(columnDefinition = "boolean default false")
+    private boolean hot;
+
     public Product() {
     }
 
@@ -64,4 +67,12 @@ public class Product {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    public boolean isHot() {
+        return hot;
+    }
+
+    public void setHot(boolean hot) {
+        this.hot = hot;
+    }
 }
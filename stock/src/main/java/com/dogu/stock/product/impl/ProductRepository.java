@@ -1,11 +1,39 @@
 package com.dogu.stock.product.impl;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
-    List<Product> findByQuantityLessThanEqual(int quantity);
+    List<Product> findByHotFalseAndQuantityLessThanEqual(int quantity);
+    List<Product> findByHotTrue();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") int id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity WHERE p.id = :id AND p.quantity >= :quantity AND p.hot = false")
+    int decrementQuantity(@Param("id") int id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :id AND p.hot = false")
+    int incrementQuantity(@Param("id") int id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = :quantity WHERE p.id = :id")
+    int setQuantity(@Param("id") int id, @Param("quantity") int quantity);
+
+    // For a product that has just left hot inventory, when the counter is already gone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :id")
+    int addQuantity(@Param("id") int id, @Param("quantity") int quantity);
 }
@@ -1,15 +1,32 @@
 package com.dogu.stock.product.impl;
 
+import com.dogu.stock.events.ProductEventPublisher;
 import com.dogu.stock.product.api.ProductDto;
 import com.dogu.stock.product.api.ProductService;
+import com.dogu.stock.product.api.StockReservationDto;
+import com.dogu.stock.product.api.StockReservationLineDto;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -17,6 +34,23 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     ProductRepository productRepository;
 
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    HotInventory hotInventory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ProductEventPublisher eventPublisher;
+
+    @Autowired
+    StockReservationRepository stockReservationRepository;
+
+    private static final int MAX_STOCK_ATTEMPTS = 3;
+
     @Override
     @Caching(evict = {
             @CacheEvict(value = "products-all", allEntries = true),
@@ -25,6 +59,7 @@ public class ProductServiceImpl implements ProductService {
     public ProductDto save(ProductDto param) {
         Product product = toEntity(param, null);
         productRepository.save(product);
+        eventPublisher.productChanged(product.getId());
         return toDto(product);
     }
 
@@ -44,6 +79,28 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    public List<ProductDto> getByIds(List<Integer> ids) {
+        Set<Integer> uniqueIds = new LinkedHashSet<>(ids);
+        IMap<Integer, ProductDto> cache = hazelcastInstance.getMap("products");
+        Map<Integer, ProductDto> found = new HashMap<>(cache.getAll(uniqueIds));
+
+        // Load cache misses with a single query and write them back
+        Set<Integer> missing = new HashSet<>(uniqueIds);
+        missing.removeAll(found.keySet());
+        if (!missing.isEmpty()) {
+            Map<Integer, ProductDto> loaded = new HashMap<>();
+            for (Product product : productRepository.findAllById(missing)) {
+                loaded.put(product.getId(), toDto(product));
+            }
+            cache.putAll(loaded);
+            found.putAll(loaded);
+        }
+
+        return uniqueIds.stream().filter(found::containsKey).map(found::get).toList();
+    }
+
+    @Override
+    @Transactional
     @Caching(
             put = {@CachePut(value = "products", key = "#info.id")},
             evict = {
@@ -52,10 +109,26 @@ public class ProductServiceImpl implements ProductService {
             }
     )
     public ProductDto update(ProductDto info) {
-        Product product = productRepository.findById(info.getId())
+        Product product = productRepository.findByIdForUpdate(info.getId())
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+        int storedQuantity = product.getQuantity();
         product = toEntity(info, product);
-        return toDto(productRepository.save(product));
+        // Hot products take the new quantity on the live counter once the row is committed;
+        // the table catches up on the next flush
+        if (product.isHot()) {
+            product.setQuantity(storedQuantity);
+            int productId = product.getId();
+            afterCommit(() -> {
+                if (!hotInventory.setQuantity(productId, info.getQuantity())) {
+                    // Demoted in the meantime, the table holds the stock again
+                    requiresNew().executeWithoutResult(status -> productRepository.setQuantity(productId, info.getQuantity()));
+                }
+            });
+        }
+        eventPublisher.productChanged(product.getId());
+        ProductDto updated = toDto(productRepository.save(product));
+        updated.setQuantity(info.getQuantity());
+        return updated;
     }
 
     @Override
@@ -68,6 +141,8 @@ public class ProductServiceImpl implements ProductService {
         Product entity = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         productRepository.delete(entity);
+        hotInventory.discard(id);
+        eventPublisher.productChanged(id);
     }
 
     @Override
@@ -79,20 +154,316 @@ public class ProductServiceImpl implements ProductService {
             }
     )
     public ProductDto reduceStock(int id, int quantity) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        if (product.getQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock. Available: " + product.getQuantity());
+        if (quantity <= 0) {
+            throw new RuntimeException("Invalid quantity: " + quantity);
+        }
+        for (int attempt = 0; attempt < MAX_STOCK_ATTEMPTS; attempt++) {
+            int remaining = hotInventory.decrement(id, quantity);
+            if (remaining == HotStockAdjustProcessor.INSUFFICIENT) {
+                throw new RuntimeException("Insufficient stock. Available: " + hotInventory.getQuantity(id));
+            }
+            if (remaining >= 0) {
+                eventPublisher.productChanged(id);
+                return withQuantity(id, remaining);
+            }
+
+            ProductDto reduced = transactionTemplate.execute(status -> reduceStoredStock(id, quantity));
+            if (reduced != null) {
+                return reduced;
+            }
+            // The product was promoted to hot inventory in the meantime, retry on the counter
+        }
+        throw new RuntimeException("Product " + id + " is moving between hot and regular inventory, please retry");
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "products-all", allEntries = true),
+            @CacheEvict(value = "products-low-stock", allEntries = true)
+    })
+    public StockReservationDto reserveStock(String orderId, List<StockReservationLineDto> lines) {
+        // A repeated call for the same order gets the first call's outcome instead of reserving twice
+        if (orderId != null && stockReservationRepository.insertIfAbsent(orderId, StockReservation.RESERVED) == 0) {
+            return existingReservation(orderId, lines);
+        }
+
+        Map<Integer, Integer> requested = new HashMap<>();
+        for (StockReservationLineDto line : lines) {
+            requested.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        Map<Integer, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(requested.keySet())) {
+            products.put(product.getId(), product);
+        }
+        Map<Integer, Integer> available = new HashMap<>();
+        for (Product product : products.values()) {
+            available.put(product.getId(), product.getQuantity());
+        }
+        available.putAll(hotInventory.getQuantities(requested.keySet()));
+
+        List<StockReservationLineDto> results = new ArrayList<>();
+        boolean reserved = true;
+        for (StockReservationLineDto line : lines) {
+            StockReservationLineDto result = new StockReservationLineDto(line.getProductId(), line.getQuantity());
+            Integer availableQuantity = available.get(line.getProductId());
+            if (line.getQuantity() <= 0) {
+                result.setMessage("Invalid quantity: " + line.getQuantity());
+            } else if (!products.containsKey(line.getProductId())) {
+                result.setMessage("Product not found");
+            } else if (availableQuantity < requested.get(line.getProductId())) {
+                result.setMessage("Insufficient stock. Available: " + availableQuantity);
+            }
+            if (availableQuantity != null) {
+                result.setRemainingQuantity(availableQuantity);
+            }
+            reserved &= result.getMessage() == null;
+            results.add(result);
+        }
+
+        // All or nothing: a single failing line leaves every product untouched
+        if (!reserved) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return new StockReservationDto(false, results);
+        }
+
+        // Decrement in id order so concurrent reservations lock rows in the same order.
+        // Table rows roll back with the transaction; hot counters are given back when it does not commit.
+        List<Integer> productIds = requested.keySet().stream().sorted().toList();
+        Map<Integer, Integer> hotRemaining = new HashMap<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    for (Integer taken : hotRemaining.keySet()) {
+                        int quantity = requested.get(taken);
+                        if (!hotInventory.restore(taken, quantity)) {
+                            // Demoted in the meantime, the flushed table already counts the decrement
+                            requiresNew().executeWithoutResult(s -> productRepository.addQuantity(taken, quantity));
+                        }
+                    }
+                }
+            }
+        });
+        for (Integer productId : productIds) {
+            int quantity = requested.get(productId);
+            int remaining = hotInventory.decrement(productId, quantity);
+            if (remaining >= 0) {
+                hotRemaining.put(productId, remaining);
+                continue;
+            }
+            if (remaining == HotStockAdjustProcessor.NOT_HOT
+                    && productRepository.decrementQuantity(productId, quantity) > 0) {
+                continue;
+            }
+
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            Integer current = hotInventory.getQuantity(productId);
+            int availableQuantity = current != null ? current
+                    : productRepository.findById(productId).map(Product::getQuantity).orElse(0);
+            for (StockReservationLineDto result : results) {
+                if (result.getProductId() == productId) {
+                    result.setRemainingQuantity(availableQuantity);
+                    result.setMessage("Insufficient stock. Available: " + availableQuantity);
+                }
+            }
+            return new StockReservationDto(false, results);
+        }
+
+        if (orderId != null) {
+            StockReservation reservation = stockReservationRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Reservation not found: " + orderId));
+            reservation.getQuantities().putAll(requested);
+            stockReservationRepository.save(reservation);
+        }
+
+        Map<Integer, ProductDto> refreshed = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            ProductDto dto = toDto(product);
+            if (hotRemaining.containsKey(product.getId())) {
+                dto.setQuantity(hotRemaining.get(product.getId()));
+            }
+            refreshed.put(product.getId(), dto);
+        }
+        IMap<Integer, ProductDto> cache = hazelcastInstance.getMap("products");
+        cache.putAll(refreshed);
+        eventPublisher.productsChanged(productIds);
+
+        for (StockReservationLineDto result : results) {
+            result.setReserved(true);
+            result.setRemainingQuantity(refreshed.get(result.getProductId()).getQuantity());
         }
-        product.setQuantity(product.getQuantity() - quantity);
-        return toDto(productRepository.save(product));
+        return new StockReservationDto(true, results);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "products-all", allEntries = true),
+            @CacheEvict(value = "products-low-stock", allEntries = true)
+    })
+    public void releaseStock(String orderId) {
+        // Release got here first (the reserve call timed out on the caller's side): the RELEASED
+        // row makes the late reservation fail instead of taking stock for an order that is gone
+        if (stockReservationRepository.insertIfAbsent(orderId, StockReservation.RELEASED) > 0) {
+            return;
+        }
+        StockReservation reservation = stockReservationRepository.findByOrderIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Reservation not found: " + orderId));
+        if (StockReservation.RELEASED.equals(reservation.getStatus())) {
+            return;
+        }
+        reservation.setStatus(StockReservation.RELEASED);
+        Map<Integer, Integer> quantities = new HashMap<>(reservation.getQuantities());
+        stockReservationRepository.save(reservation);
+
+        // Table rows are given back in this transaction, hot counters only once it has committed
+        List<Integer> productIds = quantities.keySet().stream().sorted().toList();
+        Map<Integer, Integer> hotQuantities = new HashMap<>();
+        for (Integer productId : productIds) {
+            if (productRepository.incrementQuantity(productId, quantities.get(productId)) == 0) {
+                hotQuantities.put(productId, quantities.get(productId));
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hotQuantities.forEach((productId, quantity) -> {
+                    if (!hotInventory.restore(productId, quantity)) {
+                        // Demoted in the meantime, the table holds the stock again
+                        requiresNew().executeWithoutResult(status -> productRepository.addQuantity(productId, quantity));
+                    }
+                });
+                IMap<Integer, ProductDto> cache = hazelcastInstance.getMap("products");
+                productIds.forEach(cache::delete);
+                eventPublisher.productsChanged(productIds);
+            }
+        });
+    }
+
+    @Override
+    @Caching(
+            put = {@CachePut(value = "products", key = "#id")},
+            evict = {
+                    @CacheEvict(value = "products-all", allEntries = true),
+                    @CacheEvict(value = "products-low-stock", allEntries = true)
+            }
+    )
+    public ProductDto promoteToHot(int id) {
+        return transactionTemplate.execute(status -> {
+            // The row lock makes in-flight table decrements finish before the counter is seeded
+            Product product = productRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            product.setHot(true);
+            productRepository.save(product);
+            // Table decrements skip hot rows from here on, so the seed stays exact until it lands
+            int quantity = product.getQuantity();
+            afterCommit(() -> hotInventory.promote(id, quantity));
+            eventPublisher.productChanged(id);
+            ProductDto promoted = toDto(product);
+            promoted.setQuantity(quantity);
+            return promoted;
+        });
+    }
+
+    @Override
+    @Caching(
+            put = {@CachePut(value = "products", key = "#id")},
+            evict = {
+                    @CacheEvict(value = "products-all", allEntries = true),
+                    @CacheEvict(value = "products-low-stock", allEntries = true)
+            }
+    )
+    public ProductDto demoteFromHot(int id) {
+        hotInventory.demote(id);
+        return transactionTemplate.execute(status -> {
+            Product product = productRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            product.setHot(false);
+            eventPublisher.productChanged(id);
+            return toDto(productRepository.save(product));
+        });
     }
 
     @Override
     @Cacheable(value = "products-low-stock", key = "#threshold")
     public List<ProductDto> getLowStock(int threshold) {
-        return productRepository.findByQuantityLessThanEqual(threshold)
-                .stream().map(this::toDto).toList();
+        List<ProductDto> lowStock = new ArrayList<>(productRepository.findByHotFalseAndQuantityLessThanEqual(threshold)
+                .stream().map(this::toDto).toList());
+        // The table lags behind hot counters until the next flush, so hot rows are judged by the live counter
+        productRepository.findByHotTrue().stream()
+                .map(this::toDto)
+                .filter(dto -> dto.getQuantity() <= threshold)
+                .forEach(lowStock::add);
+        return lowStock;
+    }
+
+    private StockReservationDto existingReservation(String orderId, List<StockReservationLineDto> lines) {
+        StockReservation reservation = stockReservationRepository.findByOrderIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Reservation not found: " + orderId));
+        boolean reserved = StockReservation.RESERVED.equals(reservation.getStatus());
+        Map<Integer, ProductDto> current = new HashMap<>();
+        for (Product product : productRepository.findAllById(lines.stream().map(StockReservationLineDto::getProductId).toList())) {
+            current.put(product.getId(), toDto(product));
+        }
+
+        List<StockReservationLineDto> results = new ArrayList<>();
+        for (StockReservationLineDto line : lines) {
+            StockReservationLineDto result = new StockReservationLineDto(line.getProductId(), line.getQuantity());
+            result.setReserved(reserved);
+            if (current.containsKey(line.getProductId())) {
+                result.setRemainingQuantity(current.get(line.getProductId()).getQuantity());
+            }
+            if (!reserved) {
+                result.setMessage("Reservation for order " + orderId + " was already released");
+            }
+            results.add(result);
+        }
+        return new StockReservationDto(reserved, results);
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Work done after commit must not join the finished transaction
+    private TransactionTemplate requiresNew() {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private ProductDto reduceStoredStock(int id, int quantity) {
+        int updated = productRepository.decrementQuantity(id, quantity);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (updated == 0) {
+            if (product.isHot()) {
+                return null;
+            }
+            throw new RuntimeException("Insufficient stock. Available: " + product.getQuantity());
+        }
+        eventPublisher.productChanged(id);
+        // The row stays locked by the conditional update until commit,
+        // so this read sees exactly this decrement
+        return toDto(product);
+    }
+
+    private ProductDto withQuantity(int id, int quantity) {
+        IMap<Integer, ProductDto> cache = hazelcastInstance.getMap("products");
+        ProductDto dto = cache.get(id);
+        if (dto == null) {
+            dto = toDto(productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found")));
+        }
+        dto.setQuantity(quantity);
+        return dto;
     }
 
     private Product toEntity(ProductDto request, Product entity) {
@@ -113,6 +484,13 @@ public class ProductServiceImpl implements ProductService {
         dto.setDescription(entity.getDescription());
         dto.setPrice(entity.getPrice());
         dto.setQuantity(entity.getQuantity());
+        dto.setHot(entity.isHot());
+        if (entity.isHot()) {
+            Integer live = hotInventory.getQuantity(entity.getId());
+            if (live != null) {
+                dto.setQuantity(live);
+            }
+        }
         return dto;
     }
 }
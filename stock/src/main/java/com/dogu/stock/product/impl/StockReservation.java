@@ -0,0 +1,44 @@
+package com.dogu.stock.product.impl;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// One row per basket order; makes reserve and release safe to repeat for the same order
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+
+    public static final String RESERVED = "RESERVED";
+    public static final String RELEASED = "RELEASED";
+
+    @Id
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_reservation_lines", joinColumns = @JoinColumn(name = "order_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity")
+    private Map<Integer, Integer> quantities = new HashMap<>();
+
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Map<Integer, Integer> getQuantities() { return quantities; }
+    public void setQuantities(Map<Integer, Integer> quantities) { this.quantities = quantities; }
+}
@@ -0,0 +1,26 @@
+package com.dogu.stock.product.impl;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    // Returns 0 when the order already has a row; a concurrent insert of the same order
+    // waits on the primary key until the first transaction ends
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO stock_reservations (order_id, status, created_at) VALUES (:orderId, :status, now()) " +
+            "ON CONFLICT (order_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") String orderId, @Param("status") String status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId")
+    Optional<StockReservation> findByOrderIdForUpdate(@Param("orderId") String orderId);
+}
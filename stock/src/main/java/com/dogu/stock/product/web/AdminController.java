@@ -27,16 +27,29 @@ public class AdminController {
         return stats;
     }
 
+    @PutMapping("/products/{id}/hot")
+    public ProductResponse promoteToHot(@PathVariable int id) {
+        return toResponse(productService.promoteToHot(id));
+    }
+
+    @DeleteMapping("/products/{id}/hot")
+    public ProductResponse demoteFromHot(@PathVariable int id) {
+        return toResponse(productService.demoteFromHot(id));
+    }
+
     @GetMapping("/low-stock")
     public List<ProductResponse> getLowStock(@RequestParam(defaultValue = "5") int threshold) {
-        return productService.getLowStock(threshold).stream().map(dto -> {
-            ProductResponse response = new ProductResponse();
-            response.id = dto.getId();
-            response.name = dto.getName();
-            response.description = dto.getDescription();
-            response.price = dto.getPrice();
-            response.quantity = dto.getQuantity();
-            return response;
-        }).toList();
+        return productService.getLowStock(threshold).stream().map(this::toResponse).toList();
+    }
+
+    private ProductResponse toResponse(ProductDto dto) {
+        ProductResponse response = new ProductResponse();
+        response.id = dto.getId();
+        response.name = dto.getName();
+        response.description = dto.getDescription();
+        response.price = dto.getPrice();
+        response.quantity = dto.getQuantity();
+        response.hot = dto.isHot();
+        return response;
     }
 }
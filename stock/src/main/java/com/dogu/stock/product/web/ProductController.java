@@ -2,6 +2,10 @@ package com.dogu.stock.product.web;
 
 import com.dogu.stock.product.api.ProductDto;
 import com.dogu.stock.product.api.ProductService;
+import com.dogu.stock.product.api.StockReservationDto;
+import com.dogu.stock.product.api.StockReservationLineDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,6 +36,12 @@ public class ProductController {
         return products.stream().map(this::toResponse).toList();
     }
 
+    @PostMapping("/batch")
+    public List<ProductResponse> getBatch(@RequestBody List<Integer> ids) {
+        List<ProductDto> products = service.getByIds(ids);
+        return products.stream().map(this::toResponse).toList();
+    }
+
     @PutMapping("/{id}")
     public ProductResponse update(@PathVariable int id, @RequestBody ProductRequest info) {
         ProductDto dto = toDto(info);
@@ -52,6 +62,32 @@ public class ProductController {
         return toResponse(dto);
     }
 
+    @PostMapping("/reserve-stock")
+    public ResponseEntity<StockReservationResponse> reserveStock(@RequestParam(required = false) String orderId,
+                                                                 @RequestBody List<StockReservationRequest> lines) {
+        StockReservationDto reservation = service.reserveStock(orderId, lines.stream()
+                .map(line -> new StockReservationLineDto(line.productId, line.quantity))
+                .toList());
+
+        StockReservationResponse response = new StockReservationResponse();
+        response.reserved = reservation.isReserved();
+        response.lines = reservation.getLines().stream().map(line -> {
+            StockReservationLineResponse lineResponse = new StockReservationLineResponse();
+            lineResponse.productId = line.getProductId();
+            lineResponse.quantity = line.getQuantity();
+            lineResponse.remainingQuantity = line.getRemainingQuantity();
+            lineResponse.reserved = line.isReserved();
+            lineResponse.message = line.getMessage();
+            return lineResponse;
+        }).toList();
+        return ResponseEntity.status(response.reserved ? HttpStatus.OK : HttpStatus.CONFLICT).body(response);
+    }
+
+    @PostMapping("/release-stock")
+    public void releaseStock(@RequestParam String orderId) {
+        service.releaseStock(orderId);
+    }
+
     public ProductResponse toResponse(ProductDto dto) {
         ProductResponse response = new ProductResponse();
         response.id = dto.getId();
@@ -59,6 +95,7 @@ public class ProductController {
         response.description = dto.getDescription();
         response.price = dto.getPrice();
         response.quantity = dto.getQuantity();
+        response.hot = dto.isHot();
         return response;
     }
 
@@ -6,4 +6,5 @@ public class ProductResponse {
     public String description;
     public double price;
     public int quantity;
+    public boolean hot;
 }
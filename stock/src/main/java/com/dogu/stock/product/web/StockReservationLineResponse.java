@@ -0,0 +1,9 @@
+package com.dogu.stock.product.web;
+
+public class StockReservationLineResponse {
+    public int productId;
+    public int quantity;
+    public int remainingQuantity;
+    public boolean reserved;
+    public String message;
+}
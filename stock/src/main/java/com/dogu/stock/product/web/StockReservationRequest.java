@@ -0,0 +1,6 @@
+package com.dogu.stock.product.web;
+
+public class StockReservationRequest {
+    public int productId;
+    public int quantity;
+}
@@ -0,0 +1,8 @@
+package com.dogu.stock.product.web;
+
+import java.util.List;
+
+public class StockReservationResponse {
+    public boolean reserved;
+    public List<StockReservationLineResponse> lines;
+}
@@ -0,0 +1,9 @@
+package com.dogu.stock.sales.api;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesReportService {
+    void recordOrder(String orderId, LocalDateTime placedAt, List<SoldItemDto> items);
+    List<TopProductDto> getTopProducts(String window, int limit);
+}
@@ -0,0 +1,113 @@
+package com.dogu.stock.sales.impl;
+
+import org.agrona.collections.Int2LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Per-product quantity and revenue over a sliding window, kept as a ring of time buckets.
+// Running totals are updated on every add and when a bucket falls out of the window,
+// so reading never walks the buckets. Not thread-safe, callers synchronize.
+class RollingCounter {
+
+    private final long bucketMs;
+    private final int buckets;
+    private final Int2LongHashMap[] bucketQuantities;
+    private final Int2LongHashMap[] bucketRevenueCents;
+
+    private final Int2LongHashMap quantities = new Int2LongHashMap(0L);
+    private final Int2LongHashMap revenueCents = new Int2LongHashMap(0L);
+
+    private long latestEpoch = Long.MIN_VALUE;
+
+    RollingCounter(long windowMs, int buckets) {
+        this.bucketMs = windowMs / buckets;
+        this.buckets = buckets;
+        this.bucketQuantities = new Int2LongHashMap[buckets];
+        this.bucketRevenueCents = new Int2LongHashMap[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bucketQuantities[i] = new Int2LongHashMap(0L);
+            bucketRevenueCents[i] = new Int2LongHashMap(0L);
+        }
+    }
+
+    void add(int productId, long quantity, long cents, long timeMs, long nowMs) {
+        advance(nowMs / bucketMs);
+        long epoch = Math.min(timeMs, nowMs) / bucketMs;
+        if (epoch <= latestEpoch - buckets) {
+            // Older than the window, e.g. a late redelivery
+            return;
+        }
+        int slot = slot(epoch);
+        bucketQuantities[slot].put(productId, bucketQuantities[slot].get(productId) + quantity);
+        bucketRevenueCents[slot].put(productId, bucketRevenueCents[slot].get(productId) + cents);
+        quantities.put(productId, quantities.get(productId) + quantity);
+        revenueCents.put(productId, revenueCents.get(productId) + cents);
+    }
+
+    // Bounded min-heap: keeps only the k best products seen so far while scanning the totals
+    List<long[]> top(int k, long nowMs) {
+        advance(nowMs / bucketMs);
+        PriorityQueue<long[]> heap = new PriorityQueue<>(k + 1, Comparator.comparingLong(entry -> entry[1]));
+        for (Int2LongHashMap.EntryIterator it = quantities.entrySet().iterator(); it.hasNext(); ) {
+            it.next();
+            long quantity = it.getLongValue();
+            if (heap.size() < k) {
+                heap.add(new long[]{it.getIntKey(), quantity});
+            } else if (quantity > heap.peek()[1]) {
+                heap.poll();
+                heap.add(new long[]{it.getIntKey(), quantity});
+            }
+        }
+
+        List<long[]> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            long[] entry = heap.poll();
+            result.add(new long[]{entry[0], entry[1], revenueCents.get((int) entry[0])});
+        }
+        result.sort(Comparator.comparingLong((long[] entry) -> entry[1]).reversed());
+        return result;
+    }
+
+    private void advance(long epoch) {
+        if (epoch <= latestEpoch) {
+            return;
+        }
+        long from = latestEpoch == Long.MIN_VALUE ? epoch : Math.max(latestEpoch + 1, epoch - buckets + 1);
+        for (long e = from; e <= epoch; e++) {
+            expire(slot(e));
+        }
+        latestEpoch = epoch;
+    }
+
+    // Takes a bucket that left the window out of the running totals
+    private void expire(int slot) {
+        Int2LongHashMap bucket = bucketQuantities[slot];
+        for (Int2LongHashMap.EntryIterator it = bucket.entrySet().iterator(); it.hasNext(); ) {
+            it.next();
+            subtract(quantities, it.getIntKey(), it.getLongValue());
+        }
+        Int2LongHashMap cents = bucketRevenueCents[slot];
+        for (Int2LongHashMap.EntryIterator it = cents.entrySet().iterator(); it.hasNext(); ) {
+            it.next();
+            subtract(revenueCents, it.getIntKey(), it.getLongValue());
+        }
+        bucket.clear();
+        cents.clear();
+    }
+
+    private static void subtract(Int2LongHashMap totals, int productId, long value) {
+        long remaining = totals.get(productId) - value;
+        if (remaining == 0) {
+            totals.remove(productId);
+        } else {
+            totals.put(productId, remaining);
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dogu.stock.sales.impl;
+
+import com.dogu.stock.sales.api.SalesReportService;
+import com.dogu.stock.sales.api.SoldItemDto;
+import com.dogu.stock.sales.api.TopProductDto;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Sales per product over the last hour, day and week, built only from order.created events.
+// Each stock instance keeps its own copy in memory and starts empty after a restart.
+@Service
+public class SalesReportServiceImpl implements SalesReportService {
+
+    @Value("${stock.sales-report.max-top-k:100}")
+    private int maxTopK;
+
+    private final Map<String, RollingCounter> windows = Map.of(
+            "hour", new RollingCounter(TimeUnit.HOURS.toMillis(1), 60),
+            "day", new RollingCounter(TimeUnit.DAYS.toMillis(1), 96),
+            "week", new RollingCounter(TimeUnit.DAYS.toMillis(7), 168));
+
+    private final Int2ObjectHashMap<String> productNames = new Int2ObjectHashMap<>();
+
+    // Order ids already counted, so a redelivered event is not counted twice
+    private final Map<String, Boolean> recentOrders;
+
+    public SalesReportServiceImpl(@Value("${stock.sales-report.dedup-orders:100000}") int dedupOrders) {
+        this.recentOrders = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupOrders;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void recordOrder(String orderId, LocalDateTime placedAt, List<SoldItemDto> items) {
+        if (orderId != null && recentOrders.put(orderId, Boolean.TRUE) != null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long placedAtMs = placedAt != null ? placedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : now;
+        for (SoldItemDto item : items) {
+            long cents = Math.round(item.getPrice() * item.getQuantity() * 100);
+            for (RollingCounter counter : windows.values()) {
+                counter.add(item.getProductId(), item.getQuantity(), cents, placedAtMs, now);
+            }
+            if (item.getProductName() != null) {
+                productNames.put(item.getProductId(), item.getProductName());
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<TopProductDto> getTopProducts(String window, int limit) {
+        RollingCounter counter = windows.get(window);
+        if (counter == null) {
+            throw new RuntimeException("Unknown window: " + window + ", expected hour, day or week");
+        }
+
+        int k = Math.max(1, Math.min(limit, maxTopK));
+        return counter.top(k, System.currentTimeMillis()).stream().map(entry -> {
+            TopProductDto dto = new TopProductDto();
+            dto.setProductId((int) entry[0]);
+            dto.setProductName(productNames.get((int) entry[0]));
+            dto.setQuantity(entry[1]);
+            dto.setRevenue(entry[2] / 100.0);
+            return dto;
+        }).toList();
+    }
+}
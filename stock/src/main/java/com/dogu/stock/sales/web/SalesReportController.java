@@ -0,0 +1,31 @@
+package com.dogu.stock.sales.web;
+
+import com.dogu.stock.sales.api.SalesReportService;
+import com.dogu.stock.sales.api.TopProductDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+public class SalesReportController {
+
+    @Autowired
+    SalesReportService salesReportService;
+
+    @GetMapping("/top-products")
+    public List<TopProductResponse> getTopProducts(@RequestParam(defaultValue = "day") String window,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        return salesReportService.getTopProducts(window, limit).stream().map(this::toResponse).toList();
+    }
+
+    private TopProductResponse toResponse(TopProductDto dto) {
+        TopProductResponse response = new TopProductResponse();
+        response.productId = dto.getProductId();
+        response.productName = dto.getProductName();
+        response.quantity = dto.getQuantity();
+        response.revenue = dto.getRevenue();
+        return response;
+    }
+}
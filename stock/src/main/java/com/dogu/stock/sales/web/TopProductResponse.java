@@ -0,0 +1,8 @@
+package com.dogu.stock.sales.web;
+
+public class TopProductResponse {
+    public int productId;
+    public String productName;
+    public long quantity;
+    public double revenue;
+}
@@ -0,0 +1,137 @@
+package com.dogu.stock.product.impl;
+
+import com.dogu.stock.product.api.ProductDto;
+import com.dogu.stock.product.api.ProductService;
+import com.dogu.stock.product.api.StockReservationLineDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HotInventoryConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 500;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    HotInventory hotInventory;
+
+    @Test
+    void parallelHotReduceStockNeverOversellsAndFlushesExactly() throws Exception {
+        ProductDto product = productService.save(new ProductDto(0, "stress-hot-reduce", "concurrency test", 1.0, INITIAL_STOCK));
+        try {
+            productService.promoteToHot(product.getId());
+            AtomicInteger succeeded = runConcurrently(() -> productService.reduceStock(product.getId(), 1));
+            hotInventory.flush();
+
+            assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK);
+            assertThat(hotInventory.getQuantity(product.getId())).isZero();
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        } finally {
+            productService.delete(product.getId());
+        }
+    }
+
+    @Test
+    void rolledBackReservationsGiveHotStockBack() throws Exception {
+        // The hot product is created first, so it is decremented first and the table line fails after it
+        ProductDto hot = productService.save(new ProductDto(0, "stress-hot-rollback", "concurrency test", 1.0, INITIAL_STOCK));
+        ProductDto regular = productService.save(new ProductDto(0, "stress-regular-rollback", "concurrency test", 1.0, INITIAL_STOCK / 4));
+        try {
+            productService.promoteToHot(hot.getId());
+            AtomicInteger succeeded = runConcurrently(() -> {
+                boolean reserved = productService.reserveStock(UUID.randomUUID().toString(), List.of(
+                        new StockReservationLineDto(hot.getId(), 1),
+                        new StockReservationLineDto(regular.getId(), 1)
+                )).isReserved();
+                if (!reserved) {
+                    throw new RuntimeException("Not reserved");
+                }
+                return null;
+            });
+            hotInventory.flush();
+
+            assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK / 4);
+            assertThat(productRepository.findById(regular.getId()).orElseThrow().getQuantity()).isZero();
+            assertThat(hotInventory.getQuantity(hot.getId())).isEqualTo(INITIAL_STOCK - succeeded.get());
+            assertThat(productRepository.findById(hot.getId()).orElseThrow().getQuantity()).isEqualTo(INITIAL_STOCK - succeeded.get());
+        } finally {
+            productService.delete(hot.getId());
+            productService.delete(regular.getId());
+        }
+    }
+
+    @Test
+    void promoteAndDemoteUnderLoadKeepTheTableExact() throws Exception {
+        ProductDto product = productService.save(new ProductDto(0, "stress-hot-toggle", "concurrency test", 1.0, INITIAL_STOCK));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread toggler = new Thread(() -> {
+            while (running.get()) {
+                productService.promoteToHot(product.getId());
+                productService.demoteFromHot(product.getId());
+            }
+        });
+        try {
+            toggler.start();
+            AtomicInteger succeeded = runConcurrently(() -> productService.reduceStock(product.getId(), 1));
+            running.set(false);
+            toggler.join(TimeUnit.SECONDS.toMillis(30));
+
+            assertThat(succeeded.get()).isPositive();
+            assertThat(hotInventory.getQuantity(product.getId())).isNull();
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(INITIAL_STOCK - succeeded.get());
+        } finally {
+            running.set(false);
+            productService.delete(product.getId());
+        }
+    }
+
+    private AtomicInteger runConcurrently(Callable<?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.call();
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // rejected for insufficient stock, or the product was moving between inventories
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded;
+    }
+}
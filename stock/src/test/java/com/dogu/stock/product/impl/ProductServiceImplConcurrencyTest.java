@@ -0,0 +1,125 @@
+package com.dogu.stock.product.impl;
+
+import com.dogu.stock.product.api.ProductDto;
+import com.dogu.stock.product.api.ProductService;
+import com.dogu.stock.product.api.StockReservationLineDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductServiceImplConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 500;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Test
+    void parallelReduceStockNeverOversells() throws Exception {
+        ProductDto product = productService.save(new ProductDto(0, "stress-reduce", "concurrency test", 1.0, INITIAL_STOCK));
+        try {
+            AtomicInteger succeeded = runConcurrently(() -> productService.reduceStock(product.getId(), 1));
+
+            assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK);
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        } finally {
+            productService.delete(product.getId());
+        }
+    }
+
+    @Test
+    void parallelReserveStockNeverOversells() throws Exception {
+        ProductDto first = productService.save(new ProductDto(0, "stress-reserve-1", "concurrency test", 1.0, INITIAL_STOCK));
+        ProductDto second = productService.save(new ProductDto(0, "stress-reserve-2", "concurrency test", 1.0, INITIAL_STOCK * 2));
+        try {
+            AtomicInteger succeeded = runConcurrently(() -> {
+                boolean reserved = productService.reserveStock(UUID.randomUUID().toString(), List.of(
+                        new StockReservationLineDto(second.getId(), 2),
+                        new StockReservationLineDto(first.getId(), 1)
+                )).isReserved();
+                if (!reserved) {
+                    throw new RuntimeException("Not reserved");
+                }
+                return null;
+            });
+
+            assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK);
+            assertThat(productRepository.findById(first.getId()).orElseThrow().getQuantity()).isZero();
+            assertThat(productRepository.findById(second.getId()).orElseThrow().getQuantity()).isZero();
+        } finally {
+            productService.delete(first.getId());
+            productService.delete(second.getId());
+        }
+    }
+
+    @Test
+    void repeatedReserveForSameOrderTakesStockOnceAndReleaseGivesItBack() throws Exception {
+        ProductDto product = productService.save(new ProductDto(0, "stress-reserve-order", "concurrency test", 1.0, INITIAL_STOCK));
+        String orderId = UUID.randomUUID().toString();
+        try {
+            AtomicInteger succeeded = runConcurrently(() -> {
+                if (!productService.reserveStock(orderId, List.of(new StockReservationLineDto(product.getId(), 5))).isReserved()) {
+                    throw new RuntimeException("Not reserved");
+                }
+                return null;
+            });
+
+            assertThat(succeeded.get()).isEqualTo(ATTEMPTS);
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(INITIAL_STOCK - 5);
+
+            productService.releaseStock(orderId);
+            productService.releaseStock(orderId);
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(INITIAL_STOCK);
+            assertThat(productService.reserveStock(orderId, List.of(new StockReservationLineDto(product.getId(), 5))).isReserved()).isFalse();
+        } finally {
+            productService.delete(product.getId());
+        }
+    }
+
+    private AtomicInteger runConcurrently(Callable<?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.call();
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // rejected for insufficient stock
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded;
+    }
+}